@@ -0,0 +1,52 @@
+#!/usr/bin/env bash
+#
+# Compare the blocking (default), virtual-thread (customers.execution.virtual-threads=true)
+# and reactive ('reactive' profile) customer API under load.
+#
+# Starts the packaged application once per stack against a local mongod, drives
+# GET /customers/{id} and GET /customers with `hey` at increasing concurrency, and
+# prints requests/sec and latency percentiles for each run.
+#
+# Usage: loadtest/compare-stacks.sh [duration] [concurrency levels...]
+#   e.g. loadtest/compare-stacks.sh 30s 1000 5000 10000
+#
+# Requires: a running mongod on localhost:27017, `hey` (https://github.com/rakyll/hey) and `curl`.
+# The virtual-thread stack additionally requires JDK 21+; raise `ulimit -n` for 10k clients.
+
+set -euo pipefail
+
+DURATION=${1:-30s}
+shift || true
+LEVELS=${*:-"50 200 1000"}
+PORT=18080
+JAR=$(ls target/customer-management-*.jar | grep -v original | head -n 1)
+BASE="http://localhost:${PORT}/customers"
+
+run_stack() {
+    local name=$1
+    local args=$2
+
+    echo "=== ${name} stack ==="
+    java -jar "${JAR}" --server.port=${PORT} ${args} > "target/loadtest-${name}.log" 2>&1 &
+    local pid=$!
+    trap "kill ${pid} 2>/dev/null || true" EXIT
+
+    until curl -sf "${BASE}?limit=1" > /dev/null; do sleep 1; done
+    local id
+    id=$(curl -sf "${BASE}?limit=1" | sed -E 's/.*"id":"([0-9a-f]{24})".*/\1/')
+
+    for c in ${LEVELS}; do
+        echo "--- ${name}: GET /customers/{id}, concurrency ${c}"
+        hey -z "${DURATION}" -c "${c}" "${BASE}/${id}" | grep -E "Requests/sec|50%|99%|\[[0-9]{3}\]"
+        echo "--- ${name}: GET /customers?limit=50, concurrency ${c}"
+        hey -z "${DURATION}" -c "${c}" "${BASE}?limit=50" | grep -E "Requests/sec|50%|99%|\[[0-9]{3}\]"
+    done
+
+    kill ${pid}
+    wait ${pid} 2>/dev/null || true
+    trap - EXIT
+}
+
+run_stack blocking ""
+run_stack virtual "--customers.execution.virtual-threads=true"
+run_stack reactive "--spring.profiles.active=reactive"
@@ -0,0 +1,24 @@
+#!/usr/bin/env bash
+#
+# Compare two JMH JSON result files, e.g. from before and after a dependency upgrade.
+#
+# Usage: loadtest/jmh-diff.sh <baseline.json> <candidate.json>
+#   mvn -Pbenchmarks verify -Djmh.result=target/jmh-$(git rev-parse --short HEAD).json
+#
+# Prints each benchmark's score in both files and the relative change; for the
+# average-time benchmarks in src/jmh/java a positive change is a regression.
+#
+# Requires: `jq`.
+
+set -euo pipefail
+
+BASELINE=${1:?baseline JMH JSON}
+CANDIDATE=${2:?candidate JMH JSON}
+
+scores() {
+    jq -r '.[] | "\(.benchmark | sub("^.*\\.benchmark\\."; ""))\t\(.primaryMetric.score)\t\(.primaryMetric.scoreUnit)"' "$1" | sort
+}
+
+printf "%-55s %14s %14s %-8s %9s\n" "Benchmark" "Baseline" "Candidate" "Unit" "Change"
+join -t $'\t' <(scores "${BASELINE}") <(scores "${CANDIDATE}") \
+    | awk -F '\t' '{ printf "%-55s %14.3f %14.3f %-8s %+8.1f%%\n", $1, $2, $4, $3, ($4 - $2) / $2 * 100 }'
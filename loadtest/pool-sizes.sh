@@ -0,0 +1,46 @@
+#!/usr/bin/env bash
+#
+# Measure the throughput effect of the MongoDB connection pool size.
+#
+# Starts the packaged application with the 'loadtest' profile once per pool size, drives
+# GET /customers/{id} and GET /customers with `hey` at a fixed concurrency, and prints
+# requests/sec, latency percentiles and the pool's checkout wait from /actuator/prometheus.
+#
+# Usage: loadtest/pool-sizes.sh [duration] [concurrency] [pool sizes...]
+#   e.g. loadtest/pool-sizes.sh 30s 200 5 10 25 50 100
+#
+# Requires: a running mongod on localhost:27017, `hey` (https://github.com/rakyll/hey) and `curl`.
+
+set -euo pipefail
+
+DURATION=${1:-30s}
+CONCURRENCY=${2:-200}
+shift 2 || true
+SIZES=${*:-"5 10 25 50 100"}
+PORT=18080
+JAR=$(ls target/customer-management-*.jar | grep -v original | head -n 1)
+BASE="http://localhost:${PORT}/customers"
+
+for size in ${SIZES}; do
+    echo "=== pool max-size ${size} ==="
+    java -jar "${JAR}" --server.port=${PORT} --spring.profiles.active=loadtest \
+        --customers.mongodb.pool.max-size="${size}" --customers.mongodb.pool.min-size="${size}" \
+        > "target/loadtest-pool-${size}.log" 2>&1 &
+    pid=$!
+    trap "kill ${pid} 2>/dev/null || true" EXIT
+
+    until curl -sf "${BASE}?limit=1" > /dev/null; do sleep 1; done
+    id=$(curl -sf "${BASE}?limit=1" | sed -E 's/.*"id":"([0-9a-f]{24})".*/\1/')
+
+    echo "--- pool ${size}: GET /customers/{id}, concurrency ${CONCURRENCY}"
+    hey -z "${DURATION}" -c "${CONCURRENCY}" "${BASE}/${id}" | grep -E "Requests/sec|50%|99%|\[[0-9]{3}\]"
+    echo "--- pool ${size}: GET /customers?limit=50, concurrency ${CONCURRENCY}"
+    hey -z "${DURATION}" -c "${CONCURRENCY}" "${BASE}?limit=50" | grep -E "Requests/sec|50%|99%|\[[0-9]{3}\]"
+    echo "--- pool ${size}: checkout wait"
+    curl -sf "http://localhost:${PORT}/actuator/prometheus" \
+        | grep -E '^mongodb_driver_pool_checkout_wait_seconds_(count|sum|max)\{.*client="sync"' || true
+
+    kill ${pid}
+    wait ${pid} 2>/dev/null || true
+    trap - EXIT
+done
@@ -0,0 +1,66 @@
+package com.example.customermanagement.benchmark;
+
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+
+/**
+ * Trial fixture shared by the benchmarks that run the application against mongod: starts
+ * mongod if needed and the application with the trial's properties, and closes both at the
+ * end of the trial. Subclasses are the @State classes; they name their properties and
+ * prepare their data in {@link #prepare()}, once the application is up.
+ */
+abstract class ApplicationBenchmark {
+
+    // Distinguishes emails across trials sharing one external database
+    private final String runId = new ObjectId().toHexString();
+
+    protected BenchmarkApplication application;
+
+    /**
+     * Starts mongod if needed and the application, then prepares the trial.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        application = new BenchmarkApplication(properties());
+        prepare();
+    }
+
+    /**
+     * Closes the application and stops the embedded mongod.
+     */
+    @TearDown
+    public void tearDown() {
+        if (application != null) {
+            application.close();
+        }
+    }
+
+    /**
+     * Get the application properties of the trial
+     *
+     * @return extra application properties as key=value
+     */
+    protected String[] properties() {
+        return new String[0];
+    }
+
+    /**
+     * Look up beans and insert the trial's data, once the application is up
+     */
+    protected void prepare() {
+    }
+
+    /**
+     * Create an email unique to this trial
+     *
+     * @param prefix the benchmark's prefix
+     * @param n a number unique within the trial
+     * @return the email
+     */
+    protected String email(String prefix, long n) {
+        return prefix + "-" + runId + "-" + n + "@example.com";
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.customermanagement.benchmark;
+
+import com.example.customermanagement.CustomerManagementApplication;
+import de.flapdoodle.embed.mongo.MongodExecutable;
+import de.flapdoodle.embed.process.runtime.Network;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup of the whole application in a new JVM, from launch until it answers its first
+ * request (GET /customers?limit=1 returns 200) and until it is ready (GET /admin/startup
+ * returns 200: indexes in place and the email filter loaded; seeding is off), with the
+ * default and the fast-startup profile. With -p cds=false,true the application is also
+ * started with the AppCDS archive built by mvn -Pappcds package; once that thin jar exists,
+ * both settings launch it, otherwise cds=false launches the benchmark's own classpath.
+ * Runs against an embedded mongod started for the trial, or against
+ * -Dbenchmark.mongodb.uri=.... The applications' logs go to target/startup-benchmark.log.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+public class ApplicationStartupBenchmark {
+
+    private static final File CDS_DIR = new File("target/cds");
+    private static final File CDS_ARCHIVE = new File(CDS_DIR, "customer-management.jsa");
+    private static final File LOG = new File("target/startup-benchmark.log");
+    private static final long TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(2);
+    private static final long POLL_MILLIS = 10;
+
+    @Param({"default", "fast-startup"})
+    public String profile;
+
+    @Param({"false"})
+    public boolean cds;
+
+    private MongodExecutable mongod;
+    private String mongoUri;
+    private File appJar;
+    private Process process;
+    private int port;
+
+    /**
+     * Starts mongod if needed and finds the AppCDS layout
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        mongoUri = System.getProperty("benchmark.mongodb.uri");
+        if (mongoUri == null) {
+            int mongoPort = Network.getFreeServerPort();
+            mongod = BenchmarkApplication.startMongod(mongoPort);
+            mongoUri = "mongodb://localhost:" + mongoPort + "/customerdb_startup_benchmark";
+        }
+
+        File[] jars = CDS_DIR.listFiles((dir, name) -> name.endsWith("-app.jar"));
+        appJar = jars != null && jars.length == 1 ? jars[0] : null;
+        if (cds && (appJar == null || !CDS_ARCHIVE.isFile())) {
+            throw new IllegalStateException("No AppCDS archive in " + CDS_DIR + "; build it with mvn -Pappcds package");
+        }
+    }
+
+    /**
+     * Stops the embedded mongod
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (mongod != null) {
+            mongod.stop();
+        }
+    }
+
+    /**
+     * Stops the application started by the invocation
+     */
+    @TearDown(Level.Invocation)
+    public void stopApplication() throws InterruptedException {
+        if (process == null) {
+            return;
+        }
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+        process = null;
+    }
+
+    @Benchmark
+    public int timeToFirstRequest() throws IOException, InterruptedException {
+        launch();
+        return awaitOk("/customers?limit=1");
+    }
+
+    @Benchmark
+    public int timeToReady() throws IOException, InterruptedException {
+        launch();
+        return awaitOk("/admin/startup");
+    }
+
+    /**
+     * Start the application in a new JVM on a free port
+     */
+    private void launch() throws IOException {
+        port = Network.getFreeServerPort();
+        List<String> command = new ArrayList<>();
+        command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+        command.add("-Dspring.devtools.restart.enabled=false");
+        if (cds) {
+            command.add("-XX:SharedArchiveFile=" + CDS_ARCHIVE.getPath());
+        }
+        if (appJar != null) {
+            command.addAll(Arrays.asList("-jar", appJar.getPath()));
+        } else {
+            command.addAll(Arrays.asList("-cp", System.getProperty("java.class.path"),
+                    CustomerManagementApplication.class.getName()));
+        }
+        command.addAll(Arrays.asList(
+                "--server.port=" + port,
+                "--customers.mongodb.uri=" + mongoUri,
+                "--customers.seed.enabled=false",
+                "--customers.events.enabled=false"));
+        if (!"default".equals(profile)) {
+            command.add("--spring.profiles.active=" + profile);
+        }
+
+        process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(LOG))
+                .start();
+    }
+
+    /**
+     * Poll a path until it answers 200 OK
+     *
+     * @param path the path to request
+     * @return the status code
+     */
+    private int awaitOk(String path) throws IOException, InterruptedException {
+        URL url = new URL("http://localhost:" + port + path);
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + LOG);
+            }
+            try {
+                HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+                connection.setConnectTimeout(1000);
+                connection.setReadTimeout((int) TIMEOUT_MILLIS);
+                int status = connection.getResponseCode();
+                connection.disconnect();
+                if (status == HttpURLConnection.HTTP_OK) {
+                    return status;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(POLL_MILLIS);
+        }
+        throw new IllegalStateException("No 200 OK from " + url + " within " + TIMEOUT_MILLIS + " ms, see " + LOG);
+    }
+}
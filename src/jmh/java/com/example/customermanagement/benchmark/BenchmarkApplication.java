@@ -0,0 +1,106 @@
+package com.example.customermanagement.benchmark;
+
+import com.example.customermanagement.CustomerManagementApplication;
+import de.flapdoodle.embed.mongo.MongodExecutable;
+import de.flapdoodle.embed.mongo.MongodStarter;
+import de.flapdoodle.embed.mongo.config.MongodConfigBuilder;
+import de.flapdoodle.embed.mongo.config.Net;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.process.runtime.Network;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The application's Spring context, for benchmarks that go through its own MongoClient
+ * settings and indexes. There is no web server unless the properties ask for one with
+ * spring.main.web-application-type=servlet. Runs against an embedded mongod started for the
+ * trial, or against -Dbenchmark.mongodb.uri=... when set.
+ */
+final class BenchmarkApplication implements AutoCloseable {
+
+    private final MongodExecutable mongod;
+    private final ConfigurableApplicationContext context;
+
+    /**
+     * Start mongod if needed, then the application
+     *
+     * @param properties extra application properties as key=value
+     * @throws IOException if the embedded mongod cannot be started
+     */
+    BenchmarkApplication(String... properties) throws IOException {
+        String uri = System.getProperty("benchmark.mongodb.uri");
+        if (uri == null) {
+            int port = Network.getFreeServerPort();
+            mongod = startMongod(port);
+            uri = "mongodb://localhost:" + port + "/customerdb_benchmark";
+        } else {
+            mongod = null;
+        }
+
+        List<String> all = new ArrayList<>(Arrays.asList(
+                "customers.mongodb.uri=" + uri,
+                "customers.seed.enabled=false",
+                "customers.events.enabled=false",
+                "logging.level.com.example.customermanagement=WARN"));
+        all.addAll(Arrays.asList(properties));
+        // Passed as command-line arguments, which override application.properties;
+        // default properties would not
+        String[] args = all.stream().map(property -> "--" + property).toArray(String[]::new);
+        context = new SpringApplicationBuilder(CustomerManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args);
+    }
+
+    /**
+     * Start an embedded mongod
+     *
+     * @param port the port to listen on
+     * @return the running mongod, to be stopped by the caller
+     * @throws IOException if mongod cannot be started
+     */
+    static MongodExecutable startMongod(int port) throws IOException {
+        MongodExecutable mongod = MongodStarter.getDefaultInstance().prepare(new MongodConfigBuilder()
+                .version(Version.Main.PRODUCTION)
+                .net(new Net("localhost", port, Network.localhostIsIPv6()))
+                .build());
+        mongod.start();
+        return mongod;
+    }
+
+    /**
+     * Get a bean from the application context
+     *
+     * @param type the bean type
+     * @param <T> the bean type
+     * @return the bean
+     */
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Get the port the web server listens on, when there is one
+     *
+     * @return the local server port
+     */
+    int getLocalPort() {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    /**
+     * Close the application and stop the embedded mongod
+     */
+    @Override
+    public void close() {
+        context.close();
+        if (mongod != null) {
+            mongod.stop();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.customermanagement.benchmark;
+
+import com.example.customermanagement.model.BulkImportResult;
+import com.example.customermanagement.service.CustomerBulkImportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk import throughput in customers per second, per batch size: each invocation imports
+ * a fresh NDJSON stream of new customers through the same service as POST /customers/bulk.
+ * Rendering the stream is done before the invocation and not measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CustomerBulkImportBenchmark extends ApplicationBenchmark {
+
+    private static final int RECORDS = 10_000;
+
+    private int invocation;
+
+    @Param({"100", "1000"})
+    public int batchSize;
+
+    private CustomerBulkImportService bulkImportService;
+    private byte[] input;
+
+    /**
+     * Imports with the batch size of the trial.
+     */
+    @Override
+    protected String[] properties() {
+        return new String[] {"customers.bulk.batch-size=" + batchSize};
+    }
+
+    /**
+     * Looks up the import service.
+     */
+    @Override
+    protected void prepare() {
+        bulkImportService = application.getBean(CustomerBulkImportService.class);
+    }
+
+    /**
+     * Renders the NDJSON input for the next invocation, with emails not imported before.
+     */
+    @Setup(Level.Invocation)
+    public void renderInput() {
+        StringBuilder ndjson = new StringBuilder(RECORDS * 128);
+        long first = (long) invocation++ * RECORDS;
+        for (int i = 0; i < RECORDS; i++) {
+            ndjson.append("{\"name\":\"Bulk Customer ").append(i)
+                    .append("\",\"email\":\"").append(email("bulk", first + i))
+                    .append("\",\"phone\":\"555-000-0000\",\"address\":\"1 Benchmark Way\"}\n");
+        }
+        input = ndjson.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public BulkImportResult importCustomers() throws IOException {
+        return bulkImportService.importFrom(new ByteArrayInputStream(input));
+    }
+}
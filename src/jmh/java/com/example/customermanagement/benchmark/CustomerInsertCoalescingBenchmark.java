@@ -0,0 +1,63 @@
+package com.example.customermanagement.benchmark;
+
+import com.example.customermanagement.model.Customer;
+import com.example.customermanagement.service.CustomerInsertCoalescer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent single-customer inserts with group-commit coalescing off and on.
+ * Throughput mode gives inserts/ms across all threads; sample mode gives the latency
+ * distribution (see the p0.99 line) each caller sees, including its wait for the window.
+ * Run with e.g. -Djmh.args="-f 1 -t 64 InsertCoalescing" to vary the concurrency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(32)
+public class CustomerInsertCoalescingBenchmark extends ApplicationBenchmark {
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Param({"false", "true"})
+    public boolean coalescing;
+
+    @Param({"2"})
+    public int windowMs;
+
+    private CustomerInsertCoalescer insertCoalescer;
+
+    /**
+     * Switches coalescing per trial.
+     */
+    @Override
+    protected String[] properties() {
+        return new String[] {
+                "customers.insert-coalescing.enabled=" + coalescing,
+                "customers.insert-coalescing.window-ms=" + windowMs};
+    }
+
+    /**
+     * Looks up the coalescer the inserts go through.
+     */
+    @Override
+    protected void prepare() {
+        insertCoalescer = application.getBean(CustomerInsertCoalescer.class);
+    }
+
+    @Benchmark
+    public Customer insert() {
+        long n = sequence.incrementAndGet();
+        return insertCoalescer.insert(new Customer("Benchmark Customer " + n,
+                email("coalesce", n), "555-000-0000", "1 Benchmark Way"));
+    }
+}
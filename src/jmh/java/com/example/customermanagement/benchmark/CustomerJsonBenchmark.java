@@ -0,0 +1,61 @@
+package com.example.customermanagement.benchmark;
+
+import com.example.customermanagement.model.Customer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of Customer as done for every API response and request body,
+ * including the ObjectId-to-hex conversion in getStringId().
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CustomerJsonBenchmark {
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private Customer customer;
+    private String json;
+
+    /**
+     * Prepares a reader and writer bound to Customer, as Spring's message converters use.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        writer = objectMapper.writerFor(Customer.class);
+        reader = objectMapper.readerFor(Customer.class);
+
+        customer = new Customer(new ObjectId(), "Jane Smith", "jane.smith@example.com",
+                "555-123-4567", "123 Main St, Springfield");
+        json = writer.writeValueAsString(customer);
+    }
+
+    @Benchmark
+    public String serialize() throws IOException {
+        return writer.writeValueAsString(customer);
+    }
+
+    @Benchmark
+    public Customer deserialize() throws IOException {
+        return reader.readValue(json);
+    }
+
+    @Benchmark
+    public String stringId() {
+        return customer.getStringId();
+    }
+}
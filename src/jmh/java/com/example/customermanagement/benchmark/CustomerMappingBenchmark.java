@@ -0,0 +1,81 @@
+package com.example.customermanagement.benchmark;
+
+import com.example.customermanagement.model.Customer;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Customer to/from BSON through Spring Data's MappingMongoConverter, the work done
+ * for every document the repositories read or write. The *Bson variants include
+ * encoding to (or decoding from) the wire bytes the driver sends.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CustomerMappingBenchmark {
+
+    private final DocumentCodec documentCodec = new DocumentCodec();
+
+    private MappingMongoConverter converter;
+    private Customer customer;
+    private Document document;
+    private RawBsonDocument bson;
+
+    /**
+     * Builds a converter configured as MongoConfig's, without a database connection.
+     */
+    @Setup
+    public void setUp() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setInitialEntitySet(Collections.singleton(Customer.class));
+        mappingContext.afterPropertiesSet();
+
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.afterPropertiesSet();
+
+        customer = new Customer(new ObjectId(), "Jane Smith", "jane.smith@example.com",
+                "555-123-4567", "123 Main St, Springfield");
+        document = new Document();
+        converter.write(customer, document);
+        bson = new RawBsonDocument(document, documentCodec);
+    }
+
+    @Benchmark
+    public Document write() {
+        Document target = new Document();
+        converter.write(customer, target);
+        return target;
+    }
+
+    @Benchmark
+    public Customer read() {
+        return converter.read(Customer.class, document);
+    }
+
+    @Benchmark
+    public RawBsonDocument writeBson() {
+        Document target = new Document();
+        converter.write(customer, target);
+        return new RawBsonDocument(target, documentCodec);
+    }
+
+    @Benchmark
+    public Customer readBson() {
+        return converter.read(Customer.class, bson.decode(documentCodec));
+    }
+}
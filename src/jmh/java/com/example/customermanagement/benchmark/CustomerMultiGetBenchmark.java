@@ -0,0 +1,106 @@
+package com.example.customermanagement.benchmark;
+
+import com.example.customermanagement.model.Customer;
+import com.example.customermanagement.repository.CustomerRepository;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Resolving a list of customer IDs one at a time versus in one request, at two levels:
+ * over HTTP, GET /customers/{id} per ID against one POST /customers/_mget, which is what a
+ * client sees; and in the repository, one findById per ID against the single $in query
+ * behind _mget, which leaves out the HTTP round trips. The read cache is disabled, so every
+ * ID reaches MongoDB. Runs against an embedded mongod started for the trial, or against
+ * -Dbenchmark.mongodb.uri=... when set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CustomerMultiGetBenchmark extends ApplicationBenchmark {
+
+    @Param({"10", "100"})
+    public int ids;
+
+    private CustomerRepository customerRepository;
+    private List<ObjectId> existingIds;
+    private RestTemplate restTemplate;
+    private String baseUrl;
+    private HttpEntity<String> multiGetRequest;
+
+    /**
+     * Serves HTTP on a free port, without the read cache.
+     */
+    @Override
+    protected String[] properties() {
+        return new String[] {
+                "spring.main.web-application-type=servlet",
+                "server.port=0",
+                "customers.cache.max-size=0"};
+    }
+
+    /**
+     * Inserts the customers to resolve and renders the _mget request body.
+     */
+    @Override
+    protected void prepare() {
+        customerRepository = application.getBean(CustomerRepository.class);
+
+        List<Customer> customers = new ArrayList<>(ids);
+        for (int i = 0; i < ids; i++) {
+            customers.add(new Customer("Benchmark Customer " + i, email("mget", i), "555-000-0000", "1 Benchmark Way"));
+        }
+        existingIds = new ArrayList<>(ids);
+        for (Customer customer : customerRepository.saveAll(customers)) {
+            existingIds.add(customer.getId());
+        }
+
+        restTemplate = new RestTemplate();
+        baseUrl = "http://localhost:" + application.getLocalPort() + "/customers/";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        String body = existingIds.stream()
+                .map(id -> "\"" + id.toHexString() + "\"")
+                .collect(Collectors.joining(",", "{\"ids\":[", "]}"));
+        multiGetRequest = new HttpEntity<>(body, headers);
+    }
+
+    @Benchmark
+    public void httpSingleGets(Blackhole blackhole) {
+        for (ObjectId id : existingIds) {
+            blackhole.consume(restTemplate.getForObject(baseUrl + id.toHexString(), String.class));
+        }
+    }
+
+    @Benchmark
+    public String httpMultiGet() {
+        return restTemplate.postForObject(baseUrl + "_mget", multiGetRequest, String.class);
+    }
+
+    @Benchmark
+    public void singleGets(Blackhole blackhole) {
+        for (ObjectId id : existingIds) {
+            blackhole.consume(customerRepository.findById(id));
+        }
+    }
+
+    @Benchmark
+    public Iterable<Customer> multiGet() {
+        return customerRepository.findAllById(existingIds);
+    }
+}
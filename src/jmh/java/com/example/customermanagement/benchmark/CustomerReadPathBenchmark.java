@@ -0,0 +1,133 @@
+package com.example.customermanagement.benchmark;
+
+import com.example.customermanagement.model.Customer;
+import com.example.customermanagement.model.CustomerJsonTranscoder;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A page of customers from the BSON the driver receives to the JSON response body, through
+ * the two paths GET /customers can take: decoding and mapping each document to a Customer
+ * and serializing it with Jackson, or transcoding the raw bytes with CustomerJsonTranscoder
+ * (customers.read.raw-passthrough). Runs without a database. Add -prof gc to compare
+ * allocation per page (gc.alloc.rate.norm) as well as time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CustomerReadPathBenchmark {
+
+    private final DocumentCodec documentCodec = new DocumentCodec();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+
+    @Param({"50"})
+    public int pageSize;
+
+    private MappingMongoConverter converter;
+    private CustomerJsonTranscoder transcoder;
+    private List<RawBsonDocument> page;
+    private List<RawBsonDocument> projectedPage;
+
+    /**
+     * Encodes a page of customers as the driver would receive them: whole documents for the
+     * mapped path, and with CustomerReadService's raw projection applied for the raw path.
+     * Checks that both paths produce the same JSON.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setInitialEntitySet(Collections.singleton(Customer.class));
+        mappingContext.afterPropertiesSet();
+
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.afterPropertiesSet();
+        transcoder = new CustomerJsonTranscoder();
+
+        page = new ArrayList<>(pageSize);
+        projectedPage = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Customer customer = new Customer(new ObjectId(), "Customer Näme " + i, "customer" + i + "@example.com",
+                    i % 5 == 0 ? null : "555-010-" + (1000 + i), i + " Main St, Springfield \"Unit\" " + i);
+            customer.setVersion((long) i);
+            Document document = new Document();
+            converter.write(customer, document);
+            page.add(new RawBsonDocument(document, documentCodec));
+            // Search fields and the type hint are not part of the raw projection
+            document.keySet().removeAll(Arrays.asList("nameLower", "nameGrams", "_class"));
+            projectedPage.add(new RawBsonDocument(document, documentCodec));
+        }
+
+        byte[] mapped = writeMapped().toByteArray();
+        byte[] raw = writeRaw().toByteArray();
+        if (!Arrays.equals(mapped, raw)) {
+            throw new IllegalStateException("Raw JSON differs from mapped JSON:\n"
+                    + new String(mapped, "UTF-8") + "\n" + new String(raw, "UTF-8"));
+        }
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream mapped() throws IOException {
+        return writeMapped();
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream raw() throws IOException {
+        return writeRaw();
+    }
+
+    /**
+     * Decode, map and serialize the page as the repository and Jackson converter do
+     */
+    private ByteArrayOutputStream writeMapped() throws IOException {
+        out.reset();
+        List<Customer> customers = new ArrayList<>(page.size());
+        for (RawBsonDocument document : page) {
+            customers.add(converter.read(Customer.class, document.decode(documentCodec)));
+        }
+        objectMapper.writeValue(out, customers);
+        return out;
+    }
+
+    /**
+     * Transcode the page as RawCustomerJsonConverter does
+     */
+    private ByteArrayOutputStream writeRaw() throws IOException {
+        out.reset();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            for (RawBsonDocument document : projectedPage) {
+                if (!transcoder.read(document)) {
+                    throw new IllegalStateException("Unexpected customer layout: " + document.toJson());
+                }
+                transcoder.write(generator);
+            }
+            generator.writeEndArray();
+        }
+        return out;
+    }
+}
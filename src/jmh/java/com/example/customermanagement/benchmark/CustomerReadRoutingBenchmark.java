@@ -0,0 +1,117 @@
+package com.example.customermanagement.benchmark;
+
+import com.example.customermanagement.model.Customer;
+import com.example.customermanagement.repository.CustomerRepository;
+import com.example.customermanagement.service.CustomerReadService;
+import com.example.customermanagement.service.CustomerSearchService;
+import com.example.customermanagement.service.ReadPreferenceRouter;
+import org.bson.RawBsonDocument;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Concurrent reads of the routed endpoints (a page of the listing, get-by-id and a name
+ * search) with customers.read-routing.mode primary, secondaryPreferred and nearest, so
+ * throughput can be compared with reads spread over the whole replica set. Meant for
+ * -Dbenchmark.mongodb.uri=mongodb://a,b,c/customerdb_benchmark?replicaSet=rs0; against the
+ * embedded standalone mongod every mode reads the same server, which measures only the
+ * routing overhead. Run with e.g. -Djmh.args="-f 1 -t 64 ReadRouting" to vary the concurrency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(32)
+public class CustomerReadRoutingBenchmark extends ApplicationBenchmark {
+
+    private static final int CUSTOMERS = 1000;
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"primary", "secondaryPreferred", "nearest"})
+    public String mode;
+
+    @Param({"0"})
+    public long maxStalenessSeconds;
+
+    private ReadPreferenceRouter readPreferenceRouter;
+    private CustomerRepository customerRepository;
+    private CustomerReadService customerReadService;
+    private CustomerSearchService customerSearchService;
+    private List<ObjectId> ids;
+
+    /**
+     * Routes reads with the mode of the trial.
+     */
+    @Override
+    protected String[] properties() {
+        return new String[] {
+                "customers.read-routing.mode=" + mode,
+                "customers.read-routing.max-staleness-seconds=" + maxStalenessSeconds};
+    }
+
+    /**
+     * Inserts the customers to read.
+     */
+    @Override
+    protected void prepare() {
+        readPreferenceRouter = application.getBean(ReadPreferenceRouter.class);
+        customerRepository = application.getBean(CustomerRepository.class);
+        customerReadService = application.getBean(CustomerReadService.class);
+        customerSearchService = application.getBean(CustomerSearchService.class);
+
+        List<Customer> customers = new ArrayList<>(CUSTOMERS);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            customers.add(new Customer("Routing Customer " + i, email("routing", i), "555-000-0000", "1 Benchmark Way"));
+        }
+        ids = new ArrayList<>(CUSTOMERS);
+        for (Customer customer : customerRepository.saveAll(customers)) {
+            ids.add(customer.getId());
+        }
+    }
+
+    @Benchmark
+    public Slice<Customer> listPage() {
+        return routed(() -> customerRepository.findAllByOrderByIdAsc(PageRequest.of(0, PAGE_SIZE)));
+    }
+
+    @Benchmark
+    public RawBsonDocument getById() {
+        ObjectId id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        return routed(() -> customerReadService.findRawById(id));
+    }
+
+    @Benchmark
+    public List<Customer> search() {
+        return routed(() -> customerSearchService.search("routing customer 4", CustomerSearchService.Mode.CONTAINS, PAGE_SIZE));
+    }
+
+    /**
+     * Run reads in a routed scope, as the read routing filter does for a GET request
+     *
+     * @param reads the reads
+     * @param <T> the result type
+     * @return the reads' result
+     */
+    private <T> T routed(Supplier<T> reads) {
+        readPreferenceRouter.setCurrent(readPreferenceRouter.getReadPreference());
+        try {
+            return reads.get();
+        } finally {
+            readPreferenceRouter.setCurrent(null);
+        }
+    }
+}
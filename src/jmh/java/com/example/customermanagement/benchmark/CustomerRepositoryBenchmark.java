@@ -0,0 +1,74 @@
+package com.example.customermanagement.benchmark;
+
+import com.example.customermanagement.model.Customer;
+import com.example.customermanagement.repository.CustomerRepository;
+import com.example.customermanagement.service.CustomerWriteService;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end CustomerRepository CRUD through the application's own Spring context,
+ * MongoClient settings and indexes. Runs against an embedded mongod started for the
+ * trial, or against -Dbenchmark.mongodb.uri=... when set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CustomerRepositoryBenchmark extends ApplicationBenchmark {
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private CustomerRepository customerRepository;
+    private CustomerWriteService customerWriteService;
+    private ObjectId existingId;
+
+    /**
+     * Inserts the customer the reads and updates work on.
+     */
+    @Override
+    protected void prepare() {
+        customerRepository = application.getBean(CustomerRepository.class);
+        customerWriteService = application.getBean(CustomerWriteService.class);
+        existingId = customerRepository.save(newCustomer()).getId();
+    }
+
+    @Benchmark
+    public Customer insert() {
+        return customerRepository.save(newCustomer());
+    }
+
+    @Benchmark
+    public Customer findById() {
+        return customerRepository.findById(existingId).orElse(null);
+    }
+
+    @Benchmark
+    public Customer update() {
+        return customerWriteService.update(existingId,
+                Update.update("phone", "555-" + sequence.incrementAndGet()));
+    }
+
+    @Benchmark
+    public boolean insertAndDelete() {
+        return customerWriteService.delete(customerRepository.save(newCustomer()).getId());
+    }
+
+    /**
+     * Create a customer with an email unique to this trial
+     *
+     * @return a new, unsaved customer
+     */
+    private Customer newCustomer() {
+        long n = sequence.incrementAndGet();
+        return new Customer("Benchmark Customer " + n, email("bench", n), "555-000-0000", "1 Benchmark Way");
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.customermanagement.benchmark;
+
+import com.example.customermanagement.model.Customer;
+import com.example.customermanagement.repository.CustomerRepository;
+import com.example.customermanagement.service.CustomerDataGenerator;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Customer reads and writes with each storage mapping and wire compressor, against a
+ * freshly seeded collection. Sample mode gives the latency distribution (p0.50, p0.99).
+ * At the end of each trial the bytes mongod received and sent per operation (serverStatus
+ * network counters, which count compressed bytes and include a little driver monitoring
+ * traffic) and the collection's data, storage and index sizes are printed as a
+ * "storage:" line. Runs against an embedded mongod started for the trial, or against
+ * -Dbenchmark.mongodb.uri=... pointing at an empty database, since compact and full
+ * mappings cannot share one collection's indexes. Add "snappy" to the compressor
+ * parameter (-p compressor=none,zlib,snappy) when snappy-java is on the classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CustomerStorageBenchmark {
+
+    private static final int CUSTOMERS = 10_000;
+    private static final int PAGE_SIZE = 100;
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    private final AtomicLong sequence = new AtomicLong(CUSTOMERS);
+    private final AtomicLong operations = new AtomicLong();
+    private final CustomerDataGenerator generator = new CustomerDataGenerator(42);
+
+    @Param({"false", "true"})
+    public boolean compact;
+
+    @Param({"none", "zlib"})
+    public String compressor;
+
+    private BenchmarkApplication application;
+    private CustomerRepository customerRepository;
+    private MongoTemplate mongoTemplate;
+    private long bytesInBefore;
+    private long bytesOutBefore;
+
+    /**
+     * Starts mongod if needed and the application with the trial's mapping and compressor,
+     * then seeds the customers.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        application = new BenchmarkApplication(
+                "customers.storage.compact=" + compact,
+                "customers.mongodb.compressors=" + ("none".equals(compressor) ? "" : compressor));
+        customerRepository = application.getBean(CustomerRepository.class);
+        mongoTemplate = application.getBean(MongoTemplate.class);
+
+        for (int start = 0; start < CUSTOMERS; start += SEED_BATCH_SIZE) {
+            List<Customer> batch = new ArrayList<>(SEED_BATCH_SIZE);
+            for (int i = start; i < start + SEED_BATCH_SIZE; i++) {
+                batch.add(generator.generate(i));
+            }
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Customer.class).insert(batch).execute();
+        }
+
+        Document network = serverNetwork();
+        bytesInBefore = network.get("bytesIn", Number.class).longValue();
+        bytesOutBefore = network.get("bytesOut", Number.class).longValue();
+    }
+
+    /**
+     * Prints wire bytes per operation and collection sizes, then closes the application
+     * and stops the embedded mongod.
+     */
+    @TearDown
+    public void tearDown() {
+        if (application == null) {
+            return;
+        }
+        try {
+            Document network = serverNetwork();
+            long ops = Math.max(1, operations.get());
+            Document stats = mongoTemplate.executeCommand(new Document("collStats", mongoTemplate.getCollectionName(Customer.class)));
+            System.out.printf("%nstorage: compact=%s compressor=%s: %d B/op to mongod, %d B/op from mongod; "
+                            + "avgObjSize=%d B, size=%d B, storageSize=%d B, totalIndexSize=%d B%n",
+                    compact, compressor,
+                    (network.get("bytesIn", Number.class).longValue() - bytesInBefore) / ops,
+                    (network.get("bytesOut", Number.class).longValue() - bytesOutBefore) / ops,
+                    stats.get("avgObjSize", Number.class).longValue(),
+                    stats.get("size", Number.class).longValue(),
+                    stats.get("storageSize", Number.class).longValue(),
+                    stats.get("totalIndexSize", Number.class).longValue());
+        } finally {
+            application.close();
+        }
+    }
+
+    @Benchmark
+    public Slice<Customer> readPage() {
+        operations.incrementAndGet();
+        return customerRepository.findAllByOrderByIdAsc(PageRequest.of(0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public Customer insert() {
+        operations.incrementAndGet();
+        return customerRepository.insert(generator.generate(sequence.getAndIncrement()));
+    }
+
+    /**
+     * Read mongod's network counters
+     *
+     * @return the network section of serverStatus
+     */
+    private Document serverNetwork() {
+        return mongoTemplate.executeCommand(new Document("serverStatus", 1)).get("network", Document.class);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.customermanagement.benchmark;
+
+import com.example.customermanagement.model.CustomerPage;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Path-variable id handling in CustomerController: new ObjectId(id) for valid ids, the
+ * IllegalArgumentException path for malformed ones, and the keyset cursor round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ObjectIdParsingBenchmark {
+
+    private String validId;
+    private String invalidId;
+    private String cursor;
+
+    @Setup
+    public void setUp() {
+        ObjectId id = new ObjectId();
+        validId = id.toHexString();
+        invalidId = validId.substring(0, 23) + "z";
+        cursor = CustomerPage.encodeCursor(id);
+    }
+
+    @Benchmark
+    public ObjectId parseValid() {
+        return new ObjectId(validId);
+    }
+
+    @Benchmark
+    public ObjectId parseInvalid() {
+        try {
+            return new ObjectId(invalidId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return ObjectId.isValid(validId);
+    }
+
+    @Benchmark
+    public ObjectId decodeCursor() {
+        return CustomerPage.decodeCursor(cursor);
+    }
+}
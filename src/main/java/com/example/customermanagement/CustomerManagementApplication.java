@@ -51,6 +51,12 @@ public class CustomerManagementApplication implements ApplicationListener<Contex
         }, "shutdown-hook"));
 
         logger.info("Customer Management Application started successfully");
+
+        // Training run for the AppCDS archive (mvn -Pappcds package): exit once started
+        if (applicationContext.getEnvironment().getProperty("customers.startup.exit-after-start", Boolean.class, false)) {
+            logger.info("Exiting after startup (customers.startup.exit-after-start)");
+            System.exit(SpringApplication.exit(applicationContext));
+        }
     }
 
     /**
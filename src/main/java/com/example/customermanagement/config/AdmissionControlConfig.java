@@ -0,0 +1,69 @@
+package com.example.customermanagement.config;
+
+import com.example.customermanagement.filter.AdaptiveConcurrencyLimit;
+import com.example.customermanagement.filter.AdmissionControlFilter;
+import com.mongodb.MongoClientSettings;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+
+/**
+ * Admission control in front of the customer API, enabled with customers.admission.enabled=true.
+ * The read and write limits default to the MongoDB connection pool's maximum size, so
+ * requests are shed at the door instead of queueing for a connection until they time out.
+ * Off by default: its queue wait is far shorter than the pool's, so enabling it turns slow
+ * requests into fast rejections. In virtual-thread mode it replaces the pool-sized limit.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "customers.admission.enabled", havingValue = "true")
+public class AdmissionControlConfig {
+
+    /**
+     * Registers the admission control filter for /customers.
+     *
+     * @param mongoClientSettings the blocking MongoClient's settings
+     * @param meterRegistry registry for the admission metrics
+     * @param readMaxLimit maximum concurrent reads, or 0 for the connection pool's maximum size
+     * @param writeMaxLimit maximum concurrent writes, or 0 for the connection pool's maximum size
+     * @param minLimit floor for both limits
+     * @param latencyThresholdMillis request latency above which a limit backs off
+     * @param backoffRatio factor applied to a limit when it backs off
+     * @param maxQueueSize requests of each kind allowed to wait for capacity
+     * @param maxQueueWaitMillis how long a request may wait for capacity
+     * @param retryAfterSeconds Retry-After sent with rejections
+     * @return the filter registration
+     */
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            MongoClientSettings mongoClientSettings,
+            MeterRegistry meterRegistry,
+            @Value("${customers.admission.read.max-limit:0}") int readMaxLimit,
+            @Value("${customers.admission.write.max-limit:0}") int writeMaxLimit,
+            @Value("${customers.admission.min-limit:1}") int minLimit,
+            @Value("${customers.admission.latency-threshold-ms:250}") long latencyThresholdMillis,
+            @Value("${customers.admission.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${customers.admission.max-queue-size:50}") int maxQueueSize,
+            @Value("${customers.admission.max-queue-wait-ms:50}") long maxQueueWaitMillis,
+            @Value("${customers.admission.retry-after-seconds:1}") long retryAfterSeconds) {
+        int poolSize = mongoClientSettings.getConnectionPoolSettings().getMaxSize();
+
+        AdaptiveConcurrencyLimit reads = new AdaptiveConcurrencyLimit(minLimit,
+                readMaxLimit > 0 ? readMaxLimit : poolSize,
+                latencyThresholdMillis, backoffRatio, maxQueueSize, maxQueueWaitMillis);
+        AdaptiveConcurrencyLimit writes = new AdaptiveConcurrencyLimit(minLimit,
+                writeMaxLimit > 0 ? writeMaxLimit : poolSize,
+                latencyThresholdMillis, backoffRatio, maxQueueSize, maxQueueWaitMillis);
+
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(
+                new AdmissionControlFilter(reads, writes, retryAfterSeconds, meterRegistry));
+        registration.addUrlPatterns("/customers", "/customers/*");
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+        return registration;
+    }
+}
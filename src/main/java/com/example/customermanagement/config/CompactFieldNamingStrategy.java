@@ -0,0 +1,35 @@
+package com.example.customermanagement.config;
+
+import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.data.mapping.model.FieldNamingStrategy;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stores customer properties under one- and two-letter field names.
+ * MongoDB keeps every field name in every document, so on small documents like customers
+ * the names are a large share of each document's size, in storage and on the wire.
+ * Queries, updates, projections and index keys written against Customer's property names
+ * are translated by Spring Data, and the JSON API still uses the property names.
+ * Properties without a short name keep their own name.
+ */
+public class CompactFieldNamingStrategy implements FieldNamingStrategy {
+
+    private static final Map<String, String> SHORT_NAMES = new HashMap<>();
+
+    static {
+        SHORT_NAMES.put("name", "n");
+        SHORT_NAMES.put("email", "e");
+        SHORT_NAMES.put("phone", "p");
+        SHORT_NAMES.put("address", "a");
+        SHORT_NAMES.put("version", "v");
+        SHORT_NAMES.put("nameLower", "nl");
+        SHORT_NAMES.put("nameGrams", "ng");
+    }
+
+    @Override
+    public String getFieldName(PersistentProperty<?> property) {
+        return SHORT_NAMES.getOrDefault(property.getName(), property.getName());
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.customermanagement.config;
+
+import com.example.customermanagement.filter.StartupWriteGateFilter;
+import com.example.customermanagement.service.StartupInitializationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Write gating for the servlet stack when startup initialization is deferred
+ * (customers.startup.deferred-init=true, as in the fast-startup profile): customer writes
+ * get 503 until the indexes exist and the email filter is loaded.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "customers.startup.deferred-init", havingValue = "true")
+public class DeferredStartupConfig {
+
+    /**
+     * Registers the filter rejecting /customers writes until startup initialization is done.
+     *
+     * @param startupInitializationService tells when writes are safe
+     * @param retrySeconds seconds between initialization attempts, sent as Retry-After
+     * @return the filter registration
+     */
+    @Bean
+    public FilterRegistrationBean<StartupWriteGateFilter> startupWriteGateFilter(
+            StartupInitializationService startupInitializationService,
+            @Value("${customers.startup.retry-seconds:5}") long retrySeconds) {
+        FilterRegistrationBean<StartupWriteGateFilter> registration = new FilterRegistrationBean<>(
+                new StartupWriteGateFilter(startupInitializationService, retrySeconds));
+        registration.addUrlPatterns("/customers", "/customers/*");
+        return registration;
+    }
+}
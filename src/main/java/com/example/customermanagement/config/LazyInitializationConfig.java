@@ -0,0 +1,64 @@
+package com.example.customermanagement.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/**
+ * Lazy bean initialization, enabled with customers.startup.lazy-init (part of the
+ * fast-startup profile): beans are created when first used rather than at startup, so the
+ * web server starts sooner and the first request to each endpoint pays for its beans.
+ * Beans or @Bean methods annotated with @Lazy keep their declared setting, which is how
+ * {@code @Lazy(false)} keeps a bean eager. Spring Boot 2.1 has no
+ * spring.main.lazy-initialization, so this applies it to the bean definitions directly.
+ */
+@Configuration
+@ConditionalOnProperty(name = "customers.startup.lazy-init", havingValue = "true")
+public class LazyInitializationConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(LazyInitializationConfig.class);
+
+    /**
+     * Marks every bean definition lazy unless it declares @Lazy itself. Static, so it runs
+     * before any bean is created.
+     *
+     * @return the bean factory post-processor
+     */
+    @Bean
+    public static BeanFactoryPostProcessor lazyInitializationBeanFactoryPostProcessor() {
+        return beanFactory -> {
+            int lazy = 0;
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                if (!definition.isLazyInit() && !declaresLazy(definition)) {
+                    definition.setLazyInit(true);
+                    lazy++;
+                }
+            }
+            logger.info("Lazy initialization enabled for {} beans", lazy);
+        };
+    }
+
+    /**
+     * Check whether a bean's class or @Bean method carries @Lazy
+     *
+     * @param definition the bean definition
+     * @return true if the bean's laziness was declared explicitly
+     */
+    private static boolean declaresLazy(BeanDefinition definition) {
+        if (!(definition instanceof AnnotatedBeanDefinition)) {
+            return false;
+        }
+        AnnotatedBeanDefinition annotated = (AnnotatedBeanDefinition) definition;
+        AnnotatedTypeMetadata factoryMethod = annotated.getFactoryMethodMetadata();
+        return annotated.getMetadata().isAnnotated(Lazy.class.getName())
+                || (factoryMethod != null && factoryMethod.isAnnotated(Lazy.class.getName()));
+    }
+}
@@ -0,0 +1,366 @@
+package com.example.customermanagement.config;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.ReadConcernLevel;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.Valid;
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typed MongoClient settings bound from customers.mongodb.* and validated at startup,
+ * so a misconfigured pool or timeout stops the application instead of silently falling
+ * back to driver defaults. The pool, timeouts and write concern are always set from these
+ * properties, so a URI carrying the same options is rejected rather than silently
+ * overridden; so is a read concern or compressor list set both here and in the URI.
+ */
+@Validated
+@ConfigurationProperties(prefix = "customers.mongodb")
+public class MongoClientProperties {
+
+    private static final String DEFAULT_DATABASE = "customerdb";
+    private static final List<String> SUPPORTED_COMPRESSORS = Arrays.asList("snappy", "zlib");
+
+    /**
+     * Connection string: hosts, credentials and driver options other than the ones set below.
+     */
+    @NotBlank
+    private String uri = "mongodb://localhost:27017/" + DEFAULT_DATABASE;
+
+    /**
+     * Database name; defaults to the one in the URI, then to customerdb.
+     */
+    private String database;
+
+    @Valid
+    @NotNull
+    private final Pool pool = new Pool();
+
+    @NotNull
+    private Duration connectTimeout = Duration.ofSeconds(5);
+
+    @NotNull
+    private Duration socketTimeout = Duration.ofSeconds(5);
+
+    @NotNull
+    private Duration serverSelectionTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Read concern level (local, majority, linearizable, snapshot); empty uses the server default.
+     */
+    private String readConcern;
+
+    @Valid
+    @NotNull
+    private final WriteConcern writeConcern = new WriteConcern();
+
+    /**
+     * Wire compressors in order of preference; the server picks the first it supports.
+     */
+    @NotNull
+    private List<String> compressors = new ArrayList<>();
+
+    public String getUri() {
+        return uri;
+    }
+
+    public void setUri(String uri) {
+        this.uri = uri;
+    }
+
+    /**
+     * Get the database name, falling back to the URI's database and then to customerdb
+     *
+     * @return the database name
+     */
+    public String getDatabase() {
+        if (StringUtils.hasText(database)) {
+            return database;
+        }
+        String fromUri = new ConnectionString(uri).getDatabase();
+        return StringUtils.hasText(fromUri) ? fromUri : DEFAULT_DATABASE;
+    }
+
+    public void setDatabase(String database) {
+        this.database = database;
+    }
+
+    public Pool getPool() {
+        return pool;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    public void setSocketTimeout(Duration socketTimeout) {
+        this.socketTimeout = socketTimeout;
+    }
+
+    public Duration getServerSelectionTimeout() {
+        return serverSelectionTimeout;
+    }
+
+    public void setServerSelectionTimeout(Duration serverSelectionTimeout) {
+        this.serverSelectionTimeout = serverSelectionTimeout;
+    }
+
+    public String getReadConcern() {
+        return readConcern;
+    }
+
+    public void setReadConcern(String readConcern) {
+        this.readConcern = readConcern;
+    }
+
+    public WriteConcern getWriteConcern() {
+        return writeConcern;
+    }
+
+    public List<String> getCompressors() {
+        return compressors;
+    }
+
+    public void setCompressors(List<String> compressors) {
+        this.compressors = compressors;
+    }
+
+    @AssertTrue(message = "uri must be a valid MongoDB connection string")
+    public boolean isUriValid() {
+        try {
+            new ConnectionString(uri);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @AssertTrue(message = "uri must not set maxPoolSize, minPoolSize, waitQueueMultiple, waitQueueTimeoutMS, "
+            + "maxIdleTimeMS, maxLifeTimeMS, connectTimeoutMS, socketTimeoutMS, serverSelectionTimeoutMS or a write "
+            + "concern, nor readConcernLevel or compressors when readConcern or compressors is set; "
+            + "use the customers.mongodb.* properties instead")
+    public boolean isUriOptionsValid() {
+        ConnectionString connectionString;
+        try {
+            connectionString = new ConnectionString(uri);
+        } catch (IllegalArgumentException e) {
+            // Reported by isUriValid
+            return true;
+        }
+        boolean overridden = connectionString.getMaxConnectionPoolSize() != null
+                || connectionString.getMinConnectionPoolSize() != null
+                || connectionString.getThreadsAllowedToBlockForConnectionMultiplier() != null
+                || connectionString.getMaxWaitTime() != null
+                || connectionString.getMaxConnectionIdleTime() != null
+                || connectionString.getMaxConnectionLifeTime() != null
+                || connectionString.getConnectTimeout() != null
+                || connectionString.getSocketTimeout() != null
+                || connectionString.getServerSelectionTimeout() != null
+                || connectionString.getWriteConcern() != null;
+        boolean conflicting = (StringUtils.hasText(readConcern) && connectionString.getReadConcern() != null)
+                || (!compressors.isEmpty() && !connectionString.getCompressorList().isEmpty());
+        return !overridden && !conflicting;
+    }
+
+    @AssertTrue(message = "readConcern must be one of local, majority, linearizable, snapshot")
+    public boolean isReadConcernValid() {
+        try {
+            return !StringUtils.hasText(readConcern) || ReadConcernLevel.fromString(readConcern) != null;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @AssertTrue(message = "compressors must be snappy or zlib (this driver has no zstd); snappy also needs org.xerial.snappy:snappy-java")
+    public boolean isCompressorsValid() {
+        for (String compressor : compressors) {
+            if (!SUPPORTED_COMPRESSORS.contains(compressor)) {
+                return false;
+            }
+            if ("snappy".equals(compressor)
+                    && !ClassUtils.isPresent("org.xerial.snappy.Snappy", MongoClientProperties.class.getClassLoader())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @AssertTrue(message = "timeouts must not be negative")
+    public boolean isTimeoutsValid() {
+        return !connectTimeout.isNegative() && !socketTimeout.isNegative() && !serverSelectionTimeout.isNegative();
+    }
+
+    /**
+     * Connection pool settings, applied per server.
+     */
+    public static class Pool {
+
+        @Min(0)
+        private int minSize = 1;
+
+        @Min(1)
+        private int maxSize = 10;
+
+        /**
+         * Operations allowed to queue for a connection before MongoWaitQueueFullException.
+         */
+        @Min(0)
+        private int maxWaitQueueSize = 500;
+
+        /**
+         * How long an operation waits for a free connection.
+         */
+        @NotNull
+        private Duration maxWaitTime = Duration.ofSeconds(5);
+
+        @NotNull
+        private Duration maxConnectionIdleTime = Duration.ofMinutes(5);
+
+        @NotNull
+        private Duration maxConnectionLifeTime = Duration.ofMinutes(30);
+
+        public int getMinSize() {
+            return minSize;
+        }
+
+        public void setMinSize(int minSize) {
+            this.minSize = minSize;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getMaxWaitQueueSize() {
+            return maxWaitQueueSize;
+        }
+
+        public void setMaxWaitQueueSize(int maxWaitQueueSize) {
+            this.maxWaitQueueSize = maxWaitQueueSize;
+        }
+
+        public Duration getMaxWaitTime() {
+            return maxWaitTime;
+        }
+
+        public void setMaxWaitTime(Duration maxWaitTime) {
+            this.maxWaitTime = maxWaitTime;
+        }
+
+        public Duration getMaxConnectionIdleTime() {
+            return maxConnectionIdleTime;
+        }
+
+        public void setMaxConnectionIdleTime(Duration maxConnectionIdleTime) {
+            this.maxConnectionIdleTime = maxConnectionIdleTime;
+        }
+
+        public Duration getMaxConnectionLifeTime() {
+            return maxConnectionLifeTime;
+        }
+
+        public void setMaxConnectionLifeTime(Duration maxConnectionLifeTime) {
+            this.maxConnectionLifeTime = maxConnectionLifeTime;
+        }
+
+        @AssertTrue(message = "pool.minSize must not exceed pool.maxSize")
+        public boolean isSizeRangeValid() {
+            return minSize <= maxSize;
+        }
+
+        @AssertTrue(message = "pool durations must not be negative")
+        public boolean isDurationsValid() {
+            return !maxWaitTime.isNegative() && !maxConnectionIdleTime.isNegative() && !maxConnectionLifeTime.isNegative();
+        }
+    }
+
+    /**
+     * Default write concern for the client.
+     */
+    public static class WriteConcern {
+
+        /**
+         * Acknowledgement: a node count such as 1, or a tag set name such as majority.
+         */
+        @NotBlank
+        private String w = "1";
+
+        /**
+         * Wait for the journal; unset uses the server default.
+         */
+        private Boolean journal;
+
+        /**
+         * How long to wait for the acknowledgement; zero waits indefinitely.
+         */
+        @NotNull
+        private Duration wtimeout = Duration.ZERO;
+
+        public String getW() {
+            return w;
+        }
+
+        public void setW(String w) {
+            this.w = w;
+        }
+
+        public Boolean getJournal() {
+            return journal;
+        }
+
+        public void setJournal(Boolean journal) {
+            this.journal = journal;
+        }
+
+        public Duration getWtimeout() {
+            return wtimeout;
+        }
+
+        public void setWtimeout(Duration wtimeout) {
+            this.wtimeout = wtimeout;
+        }
+
+        /**
+         * Build the driver write concern
+         *
+         * @return the write concern
+         */
+        public com.mongodb.WriteConcern toWriteConcern() {
+            com.mongodb.WriteConcern writeConcern = w.chars().allMatch(Character::isDigit)
+                    ? new com.mongodb.WriteConcern(Integer.parseInt(w))
+                    : new com.mongodb.WriteConcern(w);
+            if (journal != null) {
+                writeConcern = writeConcern.withJournal(journal);
+            }
+            return writeConcern.withWTimeout(wtimeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @AssertTrue(message = "writeConcern.wtimeout must not be negative")
+        public boolean isWtimeoutValid() {
+            return !wtimeout.isNegative();
+        }
+    }
+}
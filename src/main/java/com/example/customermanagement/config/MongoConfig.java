@@ -1,29 +1,63 @@
 package com.example.customermanagement.config;
 
+import com.example.customermanagement.metrics.MongoMetricsListener;
+import com.example.customermanagement.metrics.SlowOperationRecorder;
+import com.example.customermanagement.service.ReadPreferenceRouter;
+import com.mongodb.ConnectionString;
 import com.mongodb.MongoClientSettings;
-import com.mongodb.ServerAddress;
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadConcernLevel;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.mapping.model.FieldNamingStrategy;
 import org.springframework.data.mongodb.config.AbstractMongoClientConfiguration;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.DefaultMongoTypeMapper;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.util.StringUtils;
 
-import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
- * MongoDB configuration class that explicitly sets up the MongoDB connection
- * with hardcoded connection parameters instead of using properties.
- * This class overrides any MongoDB settings in application.properties.
+ * MongoDB configuration class that sets up the MongoDB connection from the typed,
+ * validated customers.mongodb.* settings in {@link MongoClientProperties}.
+ * This class overrides any spring.data.mongodb settings in application.properties.
  */
 @Configuration
+@EnableConfigurationProperties(MongoClientProperties.class)
 public class MongoConfig extends AbstractMongoClientConfiguration {
 
-    // Hardcoded MongoDB connection settings
-    private static final String MONGODB_HOST = "localhost"; // Replace with your actual MongoDB IP
-    private static final int MONGODB_PORT = 27017;
-    private static final String MONGODB_DATABASE = "customerdb";
+    private static final Logger logger = LoggerFactory.getLogger(MongoConfig.class);
+
+    private final MongoClientProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final SlowOperationRecorder slowOperationRecorder;
+    private final ReadPreferenceRouter readPreferenceRouter;
+    private final boolean compactStorage;
+
+    @Autowired
+    public MongoConfig(MongoClientProperties properties, MeterRegistry meterRegistry,
+                       SlowOperationRecorder slowOperationRecorder,
+                       ReadPreferenceRouter readPreferenceRouter,
+                       @Value("${customers.storage.compact:false}") boolean compactStorage) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.slowOperationRecorder = slowOperationRecorder;
+        this.readPreferenceRouter = readPreferenceRouter;
+        this.compactStorage = compactStorage;
+    }
 
     /**
      * Returns the database name to use.
@@ -31,11 +65,11 @@ public class MongoConfig extends AbstractMongoClientConfiguration {
      */
     @Override
     protected String getDatabaseName() {
-        return MONGODB_DATABASE;
+        return properties.getDatabase();
     }
 
     /**
-     * Creates and configures a MongoClient with explicit server address.
+     * Creates and configures a MongoClient from the customers.mongodb.* settings.
      * This bean will override any connection settings from application.properties.
      *
      * @return a configured MongoClient instance
@@ -44,23 +78,124 @@ public class MongoConfig extends AbstractMongoClientConfiguration {
     @Bean
     @Primary
     public MongoClient mongoClient() {
-        MongoClientSettings mongoClientSettings = MongoClientSettings.builder()
-                .applyToClusterSettings(builder ->
-                        builder.hosts(Collections.singletonList(
-                                new ServerAddress(MONGODB_HOST, MONGODB_PORT))))
+        return MongoClients.create(mongoClientSettings());
+    }
+
+    /**
+     * Creates the settings shared by every MongoClient of the application, with command and
+     * connection pool events published as Micrometer metrics and slow commands recorded.
+     * The blocking client's events are tagged client=sync, its cluster description; a client
+     * built from these settings with another description reports under that one.
+     *
+     * @return the MongoClient settings
+     */
+    @Bean
+    public MongoClientSettings mongoClientSettings() {
+        MongoClientSettings settings = mongoClientSettingsBuilder(properties, new MongoMetricsListener(meterRegistry))
+                .applyToClusterSettings(cluster -> cluster.description(MongoMetricsListener.SYNC_CLIENT))
+                .addCommandListener(slowOperationRecorder)
                 .build();
+        logger.info("MongoClient pool {}..{} connections, wait {} ms, compressors {}",
+                settings.getConnectionPoolSettings().getMinSize(),
+                settings.getConnectionPoolSettings().getMaxSize(),
+                settings.getConnectionPoolSettings().getMaxWaitTime(TimeUnit.MILLISECONDS),
+                properties.getCompressors());
+        return settings;
+    }
+
+    /**
+     * Starts the client settings from the customers.mongodb.* properties. The connection
+     * string is applied first; {@link MongoClientProperties} has already rejected any option
+     * in it that the explicit properties would override.
+     *
+     * @param properties the bound customers.mongodb.* settings
+     * @param metricsListener the listener receiving the client's command and pool events
+     * @return a MongoClient settings builder
+     */
+    private static MongoClientSettings.Builder mongoClientSettingsBuilder(MongoClientProperties properties,
+                                                                          MongoMetricsListener metricsListener) {
+        MongoClientProperties.Pool pool = properties.getPool();
+        MongoClientSettings.Builder builder = MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(properties.getUri()))
+                .applyToConnectionPoolSettings(settings -> settings
+                        .minSize(pool.getMinSize())
+                        .maxSize(pool.getMaxSize())
+                        .maxWaitQueueSize(pool.getMaxWaitQueueSize())
+                        .maxWaitTime(pool.getMaxWaitTime().toMillis(), TimeUnit.MILLISECONDS)
+                        .maxConnectionIdleTime(pool.getMaxConnectionIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+                        .maxConnectionLifeTime(pool.getMaxConnectionLifeTime().toMillis(), TimeUnit.MILLISECONDS)
+                        .addConnectionPoolListener(metricsListener))
+                .applyToSocketSettings(settings -> settings
+                        .connectTimeout((int) properties.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                        .readTimeout((int) properties.getSocketTimeout().toMillis(), TimeUnit.MILLISECONDS))
+                .applyToClusterSettings(settings -> settings
+                        .serverSelectionTimeout(properties.getServerSelectionTimeout().toMillis(), TimeUnit.MILLISECONDS))
+                .writeConcern(properties.getWriteConcern().toWriteConcern())
+                .addCommandListener(metricsListener);
 
-        return MongoClients.create(mongoClientSettings);
+        if (StringUtils.hasText(properties.getReadConcern())) {
+            builder.readConcern(new ReadConcern(ReadConcernLevel.fromString(properties.getReadConcern())));
+        }
+        if (!properties.getCompressors().isEmpty()) {
+            builder.compressorList(compressors(properties.getCompressors()));
+        }
+        return builder;
     }
 
     /**
-     * Creates a MongoTemplate using the custom MongoClient.
+     * Maps compressor names, already validated by {@link MongoClientProperties}, to driver compressors.
+     *
+     * @param names compressor names in order of preference
+     * @return the driver compressors
+     */
+    private static List<MongoCompressor> compressors(List<String> names) {
+        return names.stream()
+                .map(name -> "snappy".equals(name)
+                        ? MongoCompressor.createSnappyCompressor()
+                        : MongoCompressor.createZlibCompressor())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Uses short field names for Customer when compact storage is enabled.
+     *
+     * @return the field naming strategy of the mapping context
+     */
+    @Override
+    protected FieldNamingStrategy fieldNamingStrategy() {
+        return compactStorage ? new CompactFieldNamingStrategy() : super.fieldNamingStrategy();
+    }
+
+    /**
+     * Creates the converter shared by the blocking and reactive templates. With compact
+     * storage, documents are also written without the _class type hint, which Customer,
+     * having no subclasses, does not need.
+     *
+     * @return the mapping converter
+     * @throws Exception if the mapping context cannot be created
+     */
+    @Override
+    @Bean
+    public MappingMongoConverter mappingMongoConverter() throws Exception {
+        MappingMongoConverter converter = super.mappingMongoConverter();
+        if (compactStorage) {
+            converter.setTypeMapper(new DefaultMongoTypeMapper(null));
+        }
+        logger.info("Customer storage mapping: {}", compactStorage ? "compact field names, no _class" : "full field names");
+        return converter;
+    }
+
+    /**
+     * Creates a MongoTemplate using the custom MongoClient and the configured mapping converter.
+     * Reads made inside a routed scope of {@link ReadPreferenceRouter} use its read preference.
      *
      * @return a configured MongoTemplate instance
+     * @throws Exception if the mapping converter cannot be created
      */
+    @Override
     @Bean
     @Primary
-    public MongoTemplate mongoTemplate() {
-        return new MongoTemplate(mongoClient(), getDatabaseName());
+    public MongoTemplate mongoTemplate() throws Exception {
+        return new ReadRoutingMongoTemplate(mongoDbFactory(), mappingMongoConverter(), readPreferenceRouter);
     }
 }
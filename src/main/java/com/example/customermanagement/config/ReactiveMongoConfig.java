@@ -0,0 +1,62 @@
+package com.example.customermanagement.config;
+
+import com.example.customermanagement.metrics.MongoMetricsListener;
+import com.example.customermanagement.repository.ReactiveCustomerRepository;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+
+/**
+ * Reactive MongoDB configuration, active only with the 'reactive' profile.
+ * Boot's reactive Mongo auto-configuration is excluded in application.properties so the
+ * servlet stack never opens a second connection pool; this class builds the reactive client
+ * from the settings bean of {@link MongoConfig} and reuses its mapping converter.
+ * The reactive handlers still call blocking services (search, writes, stats, change events),
+ * so this profile keeps the blocking client too: two pools, one set of settings and listeners.
+ */
+@Configuration
+@Profile("reactive")
+@EnableReactiveMongoRepositories(basePackageClasses = ReactiveCustomerRepository.class,
+        reactiveMongoTemplateRef = "reactiveMongoTemplate")
+public class ReactiveMongoConfig {
+
+    /**
+     * Creates the reactive-streams MongoClient from the blocking client's settings, with the
+     * same listeners. Only its cluster description differs, so its metrics are tagged
+     * client=reactive and stay apart from the blocking client's pool.
+     *
+     * @param mongoClientSettings the settings configured by {@link MongoConfig}
+     * @return a configured reactive MongoClient instance
+     */
+    @Bean
+    public MongoClient reactiveMongoClient(MongoClientSettings mongoClientSettings) {
+        return MongoClients.create(MongoClientSettings.builder(mongoClientSettings)
+                .applyToClusterSettings(cluster -> cluster.description(MongoMetricsListener.REACTIVE_CLIENT))
+                .build());
+    }
+
+    /**
+     * Creates a ReactiveMongoTemplate sharing the blocking stack's mapping converter,
+     * so both stacks map Customer documents identically.
+     *
+     * @param reactiveMongoClient the reactive MongoClient
+     * @param mappingMongoConverter the converter configured by {@link MongoConfig}
+     * @param properties the bound customers.mongodb.* settings
+     * @return a configured ReactiveMongoTemplate instance
+     */
+    @Bean
+    public ReactiveMongoTemplate reactiveMongoTemplate(MongoClient reactiveMongoClient,
+                                                       MappingMongoConverter mappingMongoConverter,
+                                                       MongoClientProperties properties) {
+        return new ReactiveMongoTemplate(
+                new SimpleReactiveMongoDatabaseFactory(reactiveMongoClient, properties.getDatabase()),
+                mappingMongoConverter);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.customermanagement.config;
+
+import com.example.customermanagement.controller.ReactiveCustomerHandler;
+import com.example.customermanagement.service.StartupInitializationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.util.Arrays;
+
+/**
+ * WebFlux routing for the 'reactive' profile.
+ * Maps the /customers contract onto {@link ReactiveCustomerHandler} and teaches the
+ * JSON encoder to stream application/x-ndjson one document per line.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveWebConfig {
+
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    /**
+     * Routes for the customer API. Literal paths are registered before /{id} so they win.
+     * Writes get 503 until deferred startup initialization has created the indexes.
+     *
+     * @param handler the customer handlers
+     * @param startupInitializationService tells when writes are safe
+     * @param retrySeconds seconds between initialization attempts, sent as Retry-After
+     * @return the router function
+     */
+    @Bean
+    public RouterFunction<ServerResponse> customerRoutes(ReactiveCustomerHandler handler,
+                                                         StartupInitializationService startupInitializationService,
+                                                         @Value("${customers.startup.retry-seconds:5}") long retrySeconds) {
+        return RouterFunctions.route()
+                .GET("/customers/export", handler::exportCustomers)
+                .GET("/customers/events", handler::streamEvents)
+                .GET("/customers/search", handler::searchCustomers)
+                .GET("/customers/stats", handler::getCustomerStats)
+                .GET("/customers/{id}", handler::getCustomerById)
+                .GET("/customers", handler::getAllCustomers)
+                .POST("/customers/_mget", handler::getCustomersByIds)
+                .POST("/customers", handler::createCustomer)
+                .PUT("/customers/{id}", handler::updateCustomer)
+                .DELETE("/customers/{id}", handler::deleteCustomer)
+                .DELETE("/customers", handler::deleteAllCustomers)
+                .filter((request, next) -> {
+                    HttpMethod method = request.method();
+                    boolean read = method == HttpMethod.GET || method == HttpMethod.HEAD || request.path().endsWith("/_mget");
+                    return read || startupInitializationService.acceptsWrites()
+                            ? next.handle(request)
+                            : ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                    .header(HttpHeaders.RETRY_AFTER, Long.toString(retrySeconds))
+                                    .build();
+                })
+                .build();
+    }
+
+    /**
+     * Registers a JSON encoder that also writes application/x-ndjson, streaming each element
+     * as its own line. Runs after Boot's own Jackson codec customizer so it takes precedence.
+     *
+     * @param objectMapper the application's Jackson mapper
+     * @return the codec customizer
+     */
+    @Bean
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public CodecCustomizer ndjsonCodecCustomizer(ObjectMapper objectMapper) {
+        return configurer -> {
+            Jackson2JsonEncoder encoder = new Jackson2JsonEncoder(objectMapper,
+                    MediaType.APPLICATION_JSON, new MediaType("application", "*+json"), APPLICATION_NDJSON);
+            encoder.setStreamingMediaTypes(Arrays.asList(MediaType.APPLICATION_STREAM_JSON, APPLICATION_NDJSON));
+            configurer.defaultCodecs().jackson2JsonEncoder(encoder);
+        };
+    }
+}
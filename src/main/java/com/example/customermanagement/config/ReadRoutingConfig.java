@@ -0,0 +1,35 @@
+package com.example.customermanagement.config;
+
+import com.example.customermanagement.filter.ReadRoutingFilter;
+import com.example.customermanagement.service.ReadPreferenceRouter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Read routing for the servlet stack, enabled by setting customers.read-routing.mode to
+ * anything but primary. The listing, get-by-id, search and export endpoints may then be
+ * served by secondaries within the configured staleness bound.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnExpression("!'${customers.read-routing.mode:primary}'.equalsIgnoreCase('primary')")
+public class ReadRoutingConfig {
+
+    /**
+     * Registers the filter that opens routed scopes for /customers reads and keeps a
+     * client's reads on the primary after its own writes.
+     *
+     * @param readPreferenceRouter the configured routing
+     * @return the filter registration
+     */
+    @Bean
+    public FilterRegistrationBean<ReadRoutingFilter> readRoutingFilter(ReadPreferenceRouter readPreferenceRouter) {
+        FilterRegistrationBean<ReadRoutingFilter> registration = new FilterRegistrationBean<>(
+                new ReadRoutingFilter(readPreferenceRouter));
+        registration.addUrlPatterns("/customers", "/customers/*");
+        return registration;
+    }
+}
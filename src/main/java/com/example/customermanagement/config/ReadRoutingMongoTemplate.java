@@ -0,0 +1,40 @@
+package com.example.customermanagement.config;
+
+import com.example.customermanagement.service.ReadPreferenceRouter;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+/**
+ * MongoTemplate that applies the read preference of the current thread's routed scope,
+ * if any, to every collection it uses: finds, streams, aggregations and the repositories
+ * built on it. Outside a routed scope collections keep the client's default.
+ */
+class ReadRoutingMongoTemplate extends MongoTemplate {
+
+    private final ReadPreferenceRouter readPreferenceRouter;
+
+    /**
+     * Create a template routing reads with the given router
+     *
+     * @param mongoDbFactory the database factory
+     * @param mongoConverter the mapping converter
+     * @param readPreferenceRouter source of the current thread's read preference
+     */
+    ReadRoutingMongoTemplate(MongoDbFactory mongoDbFactory, MongoConverter mongoConverter,
+                             ReadPreferenceRouter readPreferenceRouter) {
+        super(mongoDbFactory, mongoConverter);
+        this.readPreferenceRouter = readPreferenceRouter;
+    }
+
+    @Override
+    protected MongoCollection<Document> prepareCollection(MongoCollection<Document> collection) {
+        ReadPreference readPreference = readPreferenceRouter.current();
+        return readPreference != null
+                ? collection.withReadPreference(readPreference)
+                : super.prepareCollection(collection);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.customermanagement.config;
+
+import com.example.customermanagement.filter.MongoConcurrencyLimitFilter;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.connection.ConnectionPoolSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Virtual-thread execution mode, enabled with customers.execution.virtual-threads=true.
+ * Tomcat's fixed worker pool is replaced by one virtual thread per request, async MVC work
+ * (such as the NDJSON export) and data initialization run on virtual threads too, and the
+ * number of requests admitted at once is tied to the MongoDB connection pool size instead
+ * of to a platform thread count. Requires a JDK with virtual threads (21+); the executor is
+ * looked up reflectively so the application still compiles for older targets.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "customers.execution.virtual-threads", havingValue = "true")
+public class VirtualThreadConfig implements WebMvcConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    private final ExecutorService virtualThreadExecutor;
+
+    /**
+     * Creates the virtual-thread-per-task executor shared by every part of this mode.
+     *
+     * @param tracePinning whether to report virtual threads pinned to their carrier by synchronized blocks
+     */
+    public VirtualThreadConfig(@Value("${customers.execution.trace-pinning:true}") boolean tracePinning) {
+        if (tracePinning && System.getProperty("jdk.tracePinnedThreads") == null) {
+            // Read once when the first virtual thread is created, so it must be set before the executor exists
+            System.setProperty("jdk.tracePinnedThreads", "short");
+        }
+        this.virtualThreadExecutor = newVirtualThreadPerTaskExecutor();
+        logger.info("Virtual-thread execution mode enabled (pinning trace: {})",
+                System.getProperty("jdk.tracePinnedThreads", "off"));
+    }
+
+    /**
+     * Exposes the virtual-thread executor for blocking MongoDB work outside the request path.
+     *
+     * @return the virtual-thread-per-task executor
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        return virtualThreadExecutor;
+    }
+
+    /**
+     * Runs every Tomcat request on its own virtual thread instead of the worker pool.
+     *
+     * @return the Tomcat customizer
+     */
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualThreadTomcatCustomizer() {
+        return factory -> factory.addConnectorCustomizers(
+                connector -> connector.getProtocolHandler().setExecutor(virtualThreadExecutor));
+    }
+
+    /**
+     * Bounds concurrent /customers requests to the MongoDB connection pool's size, waiting
+     * at most as long as the pool itself would for a connection. Not registered when
+     * admission control is enabled, which already limits the same requests.
+     *
+     * @param mongoClientSettings the blocking MongoClient's settings
+     * @param maxConcurrentRequests explicit limit, or 0 to use the connection pool's maximum size
+     * @return the filter registration
+     */
+    @Bean
+    @ConditionalOnProperty(name = "customers.admission.enabled", havingValue = "false", matchIfMissing = true)
+    public FilterRegistrationBean<MongoConcurrencyLimitFilter> mongoConcurrencyLimitFilter(
+            MongoClientSettings mongoClientSettings,
+            @Value("${customers.execution.max-concurrent-requests:0}") int maxConcurrentRequests) {
+        ConnectionPoolSettings poolSettings = mongoClientSettings.getConnectionPoolSettings();
+        int limit = maxConcurrentRequests > 0 ? maxConcurrentRequests : poolSettings.getMaxSize();
+
+        FilterRegistrationBean<MongoConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new MongoConcurrencyLimitFilter(limit, poolSettings.getMaxWaitTime(TimeUnit.MILLISECONDS)));
+        registration.addUrlPatterns("/customers", "/customers/*");
+        return registration;
+    }
+
+    /**
+     * Runs async MVC work, such as StreamingResponseBody exports, on virtual threads.
+     *
+     * @param configurer the async support configurer
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new ConcurrentTaskExecutor(virtualThreadExecutor));
+    }
+
+    /**
+     * Looks up Executors.newVirtualThreadPerTaskExecutor(), which only exists on JDK 21+.
+     *
+     * @return a new virtual-thread-per-task executor
+     * @throws IllegalStateException if the running JDK has no virtual threads
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("customers.execution.virtual-threads=true requires JDK 21 or later, but running on "
+                    + System.getProperty("java.version"), e);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.customermanagement.controller;
+
+import com.example.customermanagement.metrics.SlowOperationRecorder;
+import com.example.customermanagement.service.CustomerCache;
+import com.example.customermanagement.service.CustomerChangeStreamService;
+import com.example.customermanagement.service.CustomerSearchService;
+import com.example.customermanagement.service.DataInitializationService;
+import com.example.customermanagement.service.EmailBloomFilter;
+import com.example.customermanagement.service.StartupInitializationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * REST Controller for operational diagnostics.
+ * Exposes in-process counters that are useful when tuning the application.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/admin")
+public class AdminController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
+    private final CustomerCache customerCache;
+    private final CustomerSearchService customerSearchService;
+    private final EmailBloomFilter emailBloomFilter;
+    private final DataInitializationService dataInitializationService;
+    private final CustomerChangeStreamService changeStreamService;
+    private final StartupInitializationService startupInitializationService;
+    private final SlowOperationRecorder slowOperationRecorder;
+
+    /**
+     * Constructor-based dependency injection
+     *
+     * @param customerCache the customer read cache
+     * @param customerSearchService the customer name search
+     * @param emailBloomFilter the duplicate-email pre-check
+     * @param dataInitializationService the synthetic data seeder
+     * @param changeStreamService the shared customer change stream
+     * @param startupInitializationService the MongoDB-backed startup work
+     * @param slowOperationRecorder the recorder of slow MongoDB commands
+     */
+    @Autowired
+    public AdminController(CustomerCache customerCache,
+                           CustomerSearchService customerSearchService,
+                           EmailBloomFilter emailBloomFilter,
+                           DataInitializationService dataInitializationService,
+                           CustomerChangeStreamService changeStreamService,
+                           StartupInitializationService startupInitializationService,
+                           SlowOperationRecorder slowOperationRecorder) {
+        this.customerCache = customerCache;
+        this.customerSearchService = customerSearchService;
+        this.emailBloomFilter = emailBloomFilter;
+        this.dataInitializationService = dataInitializationService;
+        this.changeStreamService = changeStreamService;
+        this.startupInitializationService = startupInitializationService;
+        this.slowOperationRecorder = slowOperationRecorder;
+    }
+
+    /**
+     * Get the customer cache counters
+     *
+     * @return hit, miss, eviction and size figures
+     */
+    @GetMapping("/cache")
+    public Map<String, Object> getCacheStats() {
+        logger.debug("Getting customer cache statistics");
+        return customerCache.getStats();
+    }
+
+    /**
+     * Get the duplicate-email Bloom filter's footprint and false-positive figures
+     *
+     * @return memory, fill ratio and estimated/observed false-positive rates
+     */
+    @GetMapping("/email-filter")
+    public Map<String, Object> getEmailFilterStats() {
+        logger.debug("Getting email Bloom filter statistics");
+        return emailBloomFilter.getStats();
+    }
+
+    /**
+     * Get the progress of the synthetic data seed
+     *
+     * @return status, inserted/failed counts and docs/sec
+     */
+    @GetMapping("/seed")
+    public Map<String, Object> getSeedProgress() {
+        logger.debug("Getting data seed progress");
+        return dataInitializationService.getProgress();
+    }
+
+    /**
+     * Get the status of the shared customer change stream
+     *
+     * @return availability, subscriber count and replay buffer fill
+     */
+    @GetMapping("/events")
+    public Map<String, Object> getEventStatus() {
+        logger.debug("Getting customer change stream status");
+        return changeStreamService.getStatus();
+    }
+
+    /**
+     * Get the progress of the MongoDB-backed startup work, usable as a readiness probe
+     *
+     * @return mode, current step and attempts; 200 OK once ready, 503 Service Unavailable until then
+     */
+    @GetMapping("/startup")
+    public ResponseEntity<Map<String, Object>> getStartupStatus() {
+        logger.debug("Getting startup status");
+        return new ResponseEntity<>(startupInitializationService.getStatus(),
+                startupInitializationService.isReady() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Get the most recent slow MongoDB commands, with redacted filters and, when sampled, their plans
+     *
+     * @return threshold, explain sample rate, total recorded and the recent slow operations, newest first
+     */
+    @GetMapping("/slow-operations")
+    public Map<String, Object> getSlowOperations() {
+        logger.debug("Getting slow MongoDB operations");
+        return slowOperationRecorder.getStatus();
+    }
+
+    /**
+     * Explain the plan of a customer name search, to confirm it uses an index
+     *
+     * @param q the search term
+     * @param mode "contains" (default) or "prefix"
+     * @return the winning plan summary and raw queryPlanner output, or 400 Bad Request for an unknown mode
+     */
+    @GetMapping("/search/explain")
+    public ResponseEntity<Map<String, Object>> explainSearch(@RequestParam("q") String q,
+                                                             @RequestParam(value = "mode", defaultValue = "contains") String mode) {
+        logger.debug("Explaining customer search: q={}, mode={}", q, mode);
+
+        try {
+            CustomerSearchService.Mode searchMode = CustomerSearchService.Mode.valueOf(mode.toUpperCase(Locale.ROOT));
+            return new ResponseEntity<>(customerSearchService.explain(q, searchMode), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid search mode: {}", mode, e);
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -1,93 +1,486 @@
 package com.example.customermanagement.controller;
 
+import com.example.customermanagement.model.BulkImportResult;
 import com.example.customermanagement.model.Customer;
+import com.example.customermanagement.model.CustomerFieldSet;
+import com.example.customermanagement.model.CustomerPage;
+import com.example.customermanagement.model.MultiGetRequest;
+import com.example.customermanagement.model.MultiGetResult;
+import com.example.customermanagement.model.RawCustomerPage;
 import com.example.customermanagement.repository.CustomerRepository;
+import com.example.customermanagement.service.CustomerBulkImportService;
+import com.example.customermanagement.service.CustomerCache;
+import com.example.customermanagement.service.CustomerChangeStreamService;
+import com.example.customermanagement.service.CustomerExportService;
+import com.example.customermanagement.service.CustomerReadService;
+import com.example.customermanagement.service.CustomerSearchService;
+import com.example.customermanagement.service.CustomerStatsService;
+import com.example.customermanagement.service.CustomerWriteService;
+import org.bson.RawBsonDocument;
 import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * REST Controller for handling Customer-related HTTP requests.
  * Provides endpoints for CRUD operations on Customer entities.
+ * Serves the default servlet stack; the 'reactive' profile replaces it with {@link ReactiveCustomerHandler}.
  */
 @RestController
+@Profile("!reactive")
 @RequestMapping("/customers")
 @CrossOrigin(origins = "*") // Allow requests from any origin for development
 public class CustomerController {
 
     private static final Logger logger = LoggerFactory.getLogger(CustomerController.class);
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final CustomerRepository customerRepository;
+    private final CustomerExportService customerExportService;
+    private final CustomerBulkImportService customerBulkImportService;
+    private final CustomerCache customerCache;
+    private final CustomerWriteService customerWriteService;
+    private final CustomerSearchService customerSearchService;
+    private final CustomerStatsService customerStatsService;
+    private final CustomerReadService customerReadService;
+    private final CustomerChangeStreamService changeStreamService;
+    private final int defaultPageLimit;
+    private final int maxPageLimit;
+    private final boolean rawPassthrough;
+    private final int maxMultiGetIds;
 
     /**
      * Constructor-based dependency injection for CustomerRepository
      *
      * @param customerRepository repository for Customer entities
+     * @param customerExportService service streaming the collection for export
+     * @param customerBulkImportService service writing bulk imports in batches
+     * @param customerCache read-through cache for single-customer lookups
+     * @param customerWriteService service performing mutations and their ETag, cache and email filter upkeep
+     * @param customerSearchService service for index-backed name search
+     * @param customerStatsService cached server-side customer statistics
+     * @param customerReadService service for sparse fieldset reads and the collection-level ETag
+     * @param changeStreamService shared change stream feeding live events
+     * @param defaultPageLimit page size used when the client does not send one
+     * @param maxPageLimit upper bound for client-supplied page sizes
+     * @param rawPassthrough whether full-document reads are written from raw BSON without mapping
+     * @param maxMultiGetIds upper bound for the number of IDs in one multi-get
      */
     @Autowired
-    public CustomerController(CustomerRepository customerRepository) {
+    public CustomerController(CustomerRepository customerRepository,
+                              CustomerExportService customerExportService,
+                              CustomerBulkImportService customerBulkImportService,
+                              CustomerCache customerCache,
+                              CustomerWriteService customerWriteService,
+                              CustomerSearchService customerSearchService,
+                              CustomerStatsService customerStatsService,
+                              CustomerReadService customerReadService,
+                              CustomerChangeStreamService changeStreamService,
+                              @Value("${customers.page.default-limit:50}") int defaultPageLimit,
+                              @Value("${customers.page.max-limit:500}") int maxPageLimit,
+                              @Value("${customers.read.raw-passthrough:false}") boolean rawPassthrough,
+                              @Value("${customers.mget.max-ids:1000}") int maxMultiGetIds) {
         this.customerRepository = customerRepository;
+        this.customerExportService = customerExportService;
+        this.customerBulkImportService = customerBulkImportService;
+        this.customerCache = customerCache;
+        this.customerWriteService = customerWriteService;
+        this.customerSearchService = customerSearchService;
+        this.customerStatsService = customerStatsService;
+        this.customerReadService = customerReadService;
+        this.changeStreamService = changeStreamService;
+        this.defaultPageLimit = defaultPageLimit;
+        this.maxPageLimit = maxPageLimit;
+        this.rawPassthrough = rawPassthrough;
+        this.maxMultiGetIds = maxMultiGetIds;
     }
 
     /**
-     * Get all customers
+     * Get one page of customers using keyset pagination on _id.
+     * The next page is fetched with a range query on _id rather than skip/offset,
+     * so page N costs about the same as page 1.
+     *
+     * While the change stream is watching, pages carry the collection-level ETag, so a client
+     * revalidating with If-None-Match gets 304 Not Modified without MongoDB being queried
+     * when no customer has changed.
+     *
+     * With raw passthrough enabled, full-document pages are written straight from the
+     * documents' BSON bytes by {@link RawCustomerJsonConverter} instead of being mapped to
+     * Customer objects first; the JSON is the same.
+     *
+     * A page read from a secondary is sent without the ETag, since it may predate writes
+     * the collection-level ETag already counts.
      *
-     * @return list of all customers
+     * @param limit maximum number of customers to return, capped at the configured maximum
+     * @param after opaque cursor from a previous page's nextCursor, or null for the first page
+     * @param fields comma-separated fields to return, e.g. "name,email", or null for every field
+     * @param ifNoneMatch the client's cached ETag, if any
+     * @return the page of customers, with a next link and Link header when more pages exist,
+     *         304 Not Modified, or 400 Bad Request for an invalid limit, cursor or field
      */
     @GetMapping
-    public List<Customer> getAllCustomers() {
-        logger.debug("Getting all customers");
-        return customerRepository.findAll();
+    public ResponseEntity<CustomerPage> getAllCustomers(@RequestParam(value = "limit", required = false) Integer limit,
+                                                        @RequestParam(value = "after", required = false) String after,
+                                                        @RequestParam(value = "fields", required = false) String fields,
+                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        logger.debug("Getting customers page: limit={}, after={}, fields={}", limit, after, fields);
+
+        String etag = customerReadService.getETag();
+        if (ETags.matchesIfNoneMatch(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        int pageLimit = limit != null ? limit : defaultPageLimit;
+        if (pageLimit < 1) {
+            logger.warn("Invalid page limit: {}", limit);
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        pageLimit = Math.min(pageLimit, maxPageLimit);
+        String pageETag = customerReadService.pageETag(etag);
+
+        try {
+            CustomerFieldSet fieldSet = CustomerFieldSet.parse(fields);
+            ObjectId afterId = after != null ? CustomerPage.decodeCursor(after) : null;
+
+            if (fieldSet == null && rawPassthrough) {
+                return getRawPage(afterId, pageLimit, pageETag);
+            }
+
+            List<Customer> customers;
+            boolean hasNext;
+
+            if (fieldSet != null) {
+                // Fetch one extra projected document to learn whether another page exists
+                List<Customer> found = customerReadService.findPage(afterId, pageLimit + 1, fieldSet);
+                hasNext = found.size() > pageLimit;
+                customers = hasNext ? found.subList(0, pageLimit) : found;
+            } else {
+                Pageable pageable = PageRequest.of(0, pageLimit);
+                Slice<Customer> slice = afterId != null
+                        ? customerRepository.findByIdGreaterThanOrderByIdAsc(afterId, pageable)
+                        : customerRepository.findAllByOrderByIdAsc(pageable);
+                customers = slice.getContent();
+                hasNext = slice.hasNext();
+            }
+
+            String nextCursor = null;
+            String next = null;
+            HttpHeaders headers = pageHeaders(pageETag);
+
+            if (hasNext && !customers.isEmpty()) {
+                nextCursor = CustomerPage.encodeCursor(customers.get(customers.size() - 1).getId());
+                next = nextLink(pageLimit, nextCursor, headers);
+            }
+
+            List<?> body = fieldSet != null
+                    ? customers.stream().map(fieldSet::project).collect(Collectors.toList())
+                    : customers;
+            return new ResponseEntity<>(new CustomerPage(body, pageLimit, nextCursor, next), headers, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid page cursor or fields: after={}, fields={}", after, fields, e);
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Get one full-document page as raw BSON, to be written without mapping
+     *
+     * @param afterId the _id to continue after, or null for the first page
+     * @param pageLimit the page size
+     * @param etag the collection-level ETag, or null to send none
+     * @return the raw page
+     */
+    private ResponseEntity<CustomerPage> getRawPage(ObjectId afterId, int pageLimit, String etag) {
+        // Fetch one extra document to learn whether another page exists
+        List<RawBsonDocument> found = customerReadService.findRawPage(afterId, pageLimit + 1);
+        boolean hasNext = found.size() > pageLimit;
+        List<RawBsonDocument> documents = hasNext ? found.subList(0, pageLimit) : found;
+
+        String nextCursor = null;
+        String next = null;
+        HttpHeaders headers = pageHeaders(etag);
+
+        if (hasNext && !documents.isEmpty()) {
+            ObjectId lastId = documents.get(documents.size() - 1).getObjectId("_id").getValue();
+            nextCursor = CustomerPage.encodeCursor(lastId);
+            next = nextLink(pageLimit, nextCursor, headers);
+        }
+
+        return new ResponseEntity<>(new RawCustomerPage(documents, pageLimit, nextCursor, next), headers, HttpStatus.OK);
+    }
+
+    /**
+     * Create the caching headers of a customer page
+     *
+     * @param etag the collection-level ETag, or null to send none
+     * @return headers carrying the ETag and Cache-Control: no-cache
+     */
+    private static HttpHeaders pageHeaders(String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        if (etag != null) {
+            headers.setETag(etag);
+        }
+        headers.setCacheControl(CacheControl.noCache());
+        return headers;
     }
 
     /**
-     * Get a customer by ID
+     * Build the link to the following page and add it as a Link header
+     *
+     * @param pageLimit the page size
+     * @param nextCursor cursor for the following page
+     * @param headers the response headers to add the Link header to
+     * @return the link to the following page
+     */
+    private static String nextLink(int pageLimit, String nextCursor, HttpHeaders headers) {
+        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("limit", pageLimit)
+                .replaceQueryParam("after", nextCursor)
+                .toUriString();
+        headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        return next;
+    }
+
+    /**
+     * Export all customers as newline-delimited JSON.
+     * The response is written from a server-side cursor as documents arrive,
+     * so memory use does not grow with the size of the collection.
+     * The body is written on an async thread, which is given the request's read preference.
+     *
+     * @return a streaming body producing one customer per line
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportCustomers() {
+        logger.debug("Exporting all customers");
+
+        CustomerExportService.Export export = customerExportService.prepareExport();
+        StreamingResponseBody body = outputStream -> {
+            try {
+                export.writeTo(outputStream);
+            } catch (IOException e) {
+                logger.warn("Customer export aborted: {}", e.getMessage());
+                throw e;
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Stream customer inserts, updates and deletes as Server-Sent Events.
+     * All subscribers share one MongoDB change stream. Each event's id is a resume token,
+     * so a reconnecting EventSource (which sends Last-Event-ID) receives the events it missed,
+     * or a reset event telling it to reload if they are no longer buffered.
+     *
+     * @param lastEventId the last event ID a reconnecting client received, if any
+     * @return the event stream, or 503 Service Unavailable if change streams are unavailable
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        logger.debug("Subscribing to customer events, Last-Event-ID: {}", lastEventId);
+
+        if (!changeStreamService.isAvailable()) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        SseEmitter emitter = new SseEmitter();
+        SseChangeSubscriber subscriber = new SseChangeSubscriber(emitter);
+        emitter.onCompletion(() -> changeStreamService.unsubscribe(subscriber));
+        emitter.onTimeout(() -> changeStreamService.unsubscribe(subscriber));
+        emitter.onError(e -> changeStreamService.unsubscribe(subscriber));
+        changeStreamService.subscribe(subscriber, lastEventId);
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                // Keep reverse proxies such as nginx from buffering the stream
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
+    /**
+     * Search customers by name, case-insensitively.
+     * Both modes are served from indexes: prefix matches from nameLower, substring
+     * matches from the nameGrams trigram index. A substring term of one or two characters
+     * is too short for a trigram and scans the whole nameLower index instead.
+     *
+     * @param q the search term
+     * @param mode "contains" (default) for substring matches or "prefix" for prefix matches
+     * @param limit maximum number of results, capped at the configured maximum page size
+     * @return matching customers, or 400 Bad Request for a blank term or unknown mode
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<Customer>> searchCustomers(@RequestParam("q") String q,
+                                                          @RequestParam(value = "mode", defaultValue = "contains") String mode,
+                                                          @RequestParam(value = "limit", required = false) Integer limit) {
+        logger.debug("Searching customers: q={}, mode={}", q, mode);
+
+        int searchLimit = Math.min(limit != null ? limit : defaultPageLimit, maxPageLimit);
+        if (q.trim().isEmpty() || searchLimit < 1) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        try {
+            CustomerSearchService.Mode searchMode = CustomerSearchService.Mode.valueOf(mode.toUpperCase(Locale.ROOT));
+            return new ResponseEntity<>(customerSearchService.search(q, searchMode, searchLimit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid search mode: {}", mode, e);
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Get customer statistics: the total, the most common email domains and area codes, and
+     * signups per day over the last days.
+     * They are computed by one aggregation and cached for a short TTL; page views within it
+     * cost no query, and once it has passed the cached figures are served while they are
+     * refreshed in the background. After a write, the next request waits for fresh figures.
+     *
+     * @return the statistics with the time they were computed
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getCustomerStats() {
+        logger.debug("Getting customer statistics");
+        return new ResponseEntity<>(customerStatsService.getStats(), HttpStatus.OK);
+    }
+
+    /**
+     * Get a customer by ID.
+     * With a fields parameter, a cached customer is projected in memory; otherwise only the
+     * requested fields are fetched, and the partial customer is not cached.
+     * With raw passthrough enabled, a full customer is read as raw BSON and written without
+     * mapping; this path bypasses the customer cache, since a cached Customer would still
+     * have to be serialized by Jackson.
      *
      * @param id the customer ID as a string
-     * @return the customer if found, or 404 Not Found
+     * @param fields comma-separated fields to return, e.g. "name,email", or null for every field
+     * @return the customer with its version as a strong ETag if found, 304 Not Modified for a matching
+     *         If-None-Match, 404 Not Found, or 400 Bad Request for a malformed ID or unknown field
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Customer> getCustomerById(@PathVariable("id") String id) {
-        logger.debug("Getting customer with ID: {}", id);
+    public ResponseEntity<?> getCustomerById(@PathVariable("id") String id,
+                                             @RequestParam(value = "fields", required = false) String fields) {
+        logger.debug("Getting customer with ID: {}, fields={}", id, fields);
 
         try {
             ObjectId objectId = new ObjectId(id);
-            Optional<Customer> customerData = customerRepository.findById(objectId);
+            CustomerFieldSet fieldSet = CustomerFieldSet.parse(fields);
+            if (fieldSet == null && rawPassthrough) {
+                RawBsonDocument document = customerReadService.findRawById(objectId);
+                if (document == null) {
+                    logger.warn("Customer with ID {} not found", id);
+                    return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+                }
+                return ResponseEntity.ok()
+                        .eTag(ETags.of(document, customerReadService.storedFieldName("version")))
+                        .cacheControl(CacheControl.noCache())
+                        .body(document);
+            }
+
+            Optional<Customer> customerData;
+            if (fieldSet == null) {
+                customerData = customerCache.findById(objectId);
+            } else {
+                customerData = customerCache.getIfPresent(objectId);
+                if (!customerData.isPresent()) {
+                    customerData = customerReadService.findById(objectId, fieldSet);
+                }
+            }
 
             if (customerData.isPresent()) {
-                return new ResponseEntity<>(customerData.get(), HttpStatus.OK);
+                // A matching If-None-Match is answered with 304 by Spring MVC from this ETag
+                Object body = fieldSet != null ? fieldSet.project(customerData.get()) : customerData.get();
+                return ResponseEntity.ok()
+                        .eTag(ETags.of(customerData.get()))
+                        .cacheControl(CacheControl.noCache())
+                        .body(body);
             } else {
                 logger.warn("Customer with ID {} not found", id);
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
         } catch (IllegalArgumentException e) {
-            logger.error("Invalid ObjectId format: {}", id, e);
+            logger.error("Invalid ObjectId format or fields: id={}, fields={}", id, fields, e);
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
     }
 
     /**
-     * Create a new customer
+     * Get several customers by ID in one request.
+     * Cached customers are served from the read cache and every miss is fetched with a
+     * single $in query, replacing one GET /customers/{id} round trip per ID.
+     *
+     * @param request the IDs to resolve, in the order results should come back
+     * @return one entry per requested ID in request order, found, not_found or invalid_id,
+     *         or 400 Bad Request if no IDs or more than the configured maximum were sent
+     */
+    @PostMapping("/_mget")
+    public ResponseEntity<MultiGetResult> getCustomersByIds(@RequestBody MultiGetRequest request) {
+        List<String> ids = request.getIds();
+        logger.debug("Getting {} customers by ID", ids != null ? ids.size() : 0);
+
+        if (ids == null || ids.isEmpty() || ids.size() > maxMultiGetIds) {
+            logger.warn("Invalid multi-get size: {} (max {})", ids != null ? ids.size() : 0, maxMultiGetIds);
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        Map<ObjectId, Customer> found = customerCache.findAllById(MultiGetResult.validIds(ids));
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(MultiGetResult.of(ids, found));
+    }
+
+    /**
+     * Create a new customer.
+     * The email is pre-checked against the in-memory Bloom filter, so MongoDB is only
+     * asked whether an email exists when the filter reports it might; the unique email
+     * index still rejects any duplicate the pre-check lets through. With insert coalescing
+     * enabled, concurrent creates share one bulk insert.
      *
      * @param customer the customer to create
-     * @return the created customer with 201 Created status
+     * @return the created customer with 201 Created status, or 409 Conflict if the email is taken
      */
     @PostMapping
     public ResponseEntity<Customer> createCustomer(@RequestBody Customer customer) {
         logger.debug("Creating new customer: {}", customer);
 
         try {
-            // Ensure ID is null for new customers
-            customer.setId(null);
-            Customer newCustomer = customerRepository.save(customer);
+            if (customerWriteService.isEmailTaken(customer.getEmail())) {
+                logger.warn("Customer with email {} already exists", customer.getEmail());
+                return new ResponseEntity<>(HttpStatus.CONFLICT);
+            }
+
+            Customer newCustomer = customerWriteService.create(customer);
             logger.info("Customer created with ID: {}", newCustomer.getStringId());
-            return new ResponseEntity<>(newCustomer, HttpStatus.CREATED);
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(newCustomer)).body(newCustomer);
+        } catch (DuplicateKeyException e) {
+            logger.warn("Customer with email {} already exists", customer.getEmail());
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
         } catch (Exception e) {
             logger.error("Error creating customer", e);
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
@@ -95,34 +488,75 @@ public class CustomerController {
     }
 
     /**
-     * Update an existing customer
+     * Import customers in bulk from a JSON array or an NDJSON stream.
+     * Records are written in batches with unordered bulk inserts; the response
+     * reports inserted, failed and duplicate-email counts per batch plus throughput.
+     * Malformed input stops the import; the customers before the bad record are still written.
+     *
+     * @param request the HTTP request whose body holds the customers
+     * @return the import result with 200 OK, or with 400 Bad Request and the malformed record's
+     *         number and parse error if the body is not valid JSON
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    public ResponseEntity<BulkImportResult> bulkImportCustomers(HttpServletRequest request) {
+        logger.debug("Bulk importing customers");
+
+        try {
+            BulkImportResult result = customerBulkImportService.importFrom(request.getInputStream());
+            return new ResponseEntity<>(result, result.getParseError() != null ? HttpStatus.BAD_REQUEST : HttpStatus.OK);
+        } catch (Exception e) {
+            logger.error("Error bulk importing customers", e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Update an existing customer.
+     * The supplied (non-null) fields are applied with a single atomic findAndModify,
+     * so no read precedes the write and concurrent updates of other fields are not lost.
+     * With If-Match, the version from the ETag becomes part of the findAndModify filter,
+     * so a stale update matches nothing and is rejected without an extra read.
      *
      * @param id the ID of the customer to update as a string
      * @param customer the updated customer data
-     * @return the updated customer if found, or 404 Not Found
+     * @param ifMatch the ETag the client last saw, if any
+     * @return the updated customer with its new ETag if found, 404 Not Found, 412 Precondition Failed
+     * if If-Match is stale, 409 Conflict if the new email is taken, or 400 Bad Request if no fields were supplied
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Customer> updateCustomer(@PathVariable("id") String id, @RequestBody Customer customer) {
-        logger.debug("Updating customer with ID: {}", id);
+    public ResponseEntity<Customer> updateCustomer(@PathVariable("id") String id, @RequestBody Customer customer,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        logger.debug("Updating customer with ID: {}, If-Match: {}", id, ifMatch);
 
         try {
             ObjectId objectId = new ObjectId(id);
-            Optional<Customer> customerData = customerRepository.findById(objectId);
+            Update update = CustomerWriteService.toUpdate(customer);
 
-            if (customerData.isPresent()) {
-                Customer existingCustomer = customerData.get();
-                existingCustomer.setName(customer.getName());
-                existingCustomer.setEmail(customer.getEmail());
-                existingCustomer.setPhone(customer.getPhone());
-                existingCustomer.setAddress(customer.getAddress());
+            if (update.getUpdateObject().isEmpty()) {
+                logger.warn("No fields supplied to update customer {}", id);
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+
+            Long expectedVersion = ifMatch != null && !ifMatch.trim().equals("*") ? ETags.requiredVersion(ifMatch) : null;
+            Customer updatedCustomer = customerWriteService.update(objectId, update, expectedVersion);
 
-                Customer updatedCustomer = customerRepository.save(existingCustomer);
+            if (updatedCustomer != null) {
                 logger.info("Customer updated: {}", updatedCustomer.getStringId());
-                return new ResponseEntity<>(updatedCustomer, HttpStatus.OK);
+                return ResponseEntity.ok().eTag(ETags.of(updatedCustomer)).body(updatedCustomer);
+            } else if (ifMatch != null) {
+                // Per RFC 7232 a missing resource also fails If-Match, so no read is needed to tell the cases apart
+                logger.warn("Customer {} not found at version {} for update", id, expectedVersion);
+                return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
             } else {
                 logger.warn("Customer with ID {} not found for update", id);
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
+        } catch (IllegalStateException e) {
+            logger.warn("Unusable If-Match for customer {}: {}", id, ifMatch);
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        } catch (DuplicateKeyException e) {
+            logger.warn("Cannot update customer {}: email {} already exists", id, customer.getEmail());
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
         } catch (IllegalArgumentException e) {
             logger.error("Invalid ObjectId format for update: {}", id, e);
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
@@ -133,7 +567,8 @@ public class CustomerController {
     }
 
     /**
-     * Delete a customer by ID
+     * Delete a customer by ID.
+     * Existence is decided from the delete's result, so this costs a single round trip.
      *
      * @param id the ID of the customer to delete as a string
      * @return 204 No Content if successful, 404 Not Found if customer doesn't exist
@@ -144,10 +579,8 @@ public class CustomerController {
 
         try {
             ObjectId objectId = new ObjectId(id);
-            Optional<Customer> customer = customerRepository.findById(objectId);
 
-            if (customer.isPresent()) {
-                customerRepository.deleteById(objectId);
+            if (customerWriteService.delete(objectId)) {
                 logger.info("Customer deleted: {}", id);
                 return new ResponseEntity<>(HttpStatus.NO_CONTENT);
             } else {
@@ -173,7 +606,7 @@ public class CustomerController {
         logger.debug("Deleting all customers");
 
         try {
-            customerRepository.deleteAll();
+            customerWriteService.deleteAll();
             logger.info("All customers deleted");
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         } catch (Exception e) {
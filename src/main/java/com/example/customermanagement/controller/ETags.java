@@ -0,0 +1,87 @@
+package com.example.customermanagement.controller;
+
+import com.example.customermanagement.model.Customer;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+
+/**
+ * Entity-tag helpers shared by the servlet and reactive customer endpoints.
+ * A customer's strong ETag is its quoted document version, so If-Match can be turned
+ * straight into a version condition on the update without reading the document first.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Get the strong ETag of a customer
+     *
+     * @param customer the customer
+     * @return the quoted version, or null if the customer's version was not loaded
+     */
+    static String of(Customer customer) {
+        return customer.getVersion() != null ? "\"" + customer.getVersion() + "\"" : null;
+    }
+
+    /**
+     * Get the strong ETag of a raw customer document
+     *
+     * @param document the raw customer document
+     * @param versionField the field the version is stored under
+     * @return the quoted version, or null if the document has no numeric version
+     */
+    static String of(RawBsonDocument document, String versionField) {
+        BsonValue version = document.get(versionField);
+        return version != null && version.isNumber() ? "\"" + version.asNumber().longValue() + "\"" : null;
+    }
+
+    /**
+     * Evaluate If-None-Match with the weak comparison RFC 7232 prescribes for it
+     *
+     * @param ifNoneMatch the header value, or null if absent
+     * @param etag the current ETag, or null if there is none
+     * @return true if the client's copy is current and 304 Not Modified applies
+     */
+    static boolean matchesIfNoneMatch(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeak(tag).equals(stripWeak(etag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Read the version an If-Match header requires, using strong comparison
+     *
+     * @param ifMatch the header value, which must be a single strong customer ETag
+     * @return the required version
+     * @throws IllegalStateException if the header is not a single strong customer ETag, so it can never match
+     */
+    static long requiredVersion(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new IllegalStateException("If-Match is not a strong customer ETag: " + ifMatch);
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("If-Match is not a strong customer ETag: " + ifMatch, e);
+        }
+    }
+
+    /**
+     * Drop a weak indicator from an entity tag
+     *
+     * @param tag the entity tag
+     * @return the opaque tag
+     */
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.customermanagement.controller;
+
+import com.example.customermanagement.model.Customer;
+import com.example.customermanagement.model.CustomerJsonTranscoder;
+import com.example.customermanagement.model.RawCustomerPage;
+import com.example.customermanagement.service.CustomerReadService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Writes raw customer documents and {@link RawCustomerPage}s as JSON without mapping them
+ * to {@link Customer} first. Registered as a bean, so Spring Boot places it ahead of the
+ * Jackson converter for these types only. A document the transcoder cannot handle is
+ * mapped and written by Jackson, so the output is always the regular customer JSON.
+ */
+@Component
+@Profile("!reactive")
+class RawCustomerJsonConverter extends AbstractHttpMessageConverter<Object> {
+
+    private final DocumentCodec documentCodec = new DocumentCodec();
+    private final ObjectMapper objectMapper;
+    private final MongoConverter mongoConverter;
+    private final CustomerReadService customerReadService;
+
+    /**
+     * Constructor-based dependency injection
+     *
+     * @param objectMapper the application's Jackson mapper, for the generator and the fallback path
+     * @param mongoConverter converter mapping documents the transcoder cannot handle
+     * @param customerReadService source of the field names customers are stored under
+     */
+    @Autowired
+    RawCustomerJsonConverter(ObjectMapper objectMapper, MongoConverter mongoConverter,
+                             CustomerReadService customerReadService) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.objectMapper = objectMapper;
+        this.mongoConverter = mongoConverter;
+        this.customerReadService = customerReadService;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return RawCustomerPage.class.isAssignableFrom(clazz) || RawBsonDocument.class == clazz;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Raw customer documents are write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputMessage.getBody(), JsonEncoding.UTF8);
+        CustomerJsonTranscoder transcoder = new CustomerJsonTranscoder(customerReadService::storedFieldName);
+
+        if (body instanceof RawCustomerPage) {
+            // Same property order as Jackson's output for CustomerPage
+            RawCustomerPage page = (RawCustomerPage) body;
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("customers");
+            for (RawBsonDocument document : page.getRawCustomers()) {
+                writeCustomer(generator, transcoder, document);
+            }
+            generator.writeEndArray();
+            generator.writeNumberField("limit", page.getLimit());
+            generator.writeStringField("nextCursor", page.getNextCursor());
+            generator.writeStringField("next", page.getNext());
+            generator.writeEndObject();
+        } else {
+            writeCustomer(generator, transcoder, (RawBsonDocument) body);
+        }
+        // Flush rather than close, leaving the response stream to the container
+        generator.flush();
+    }
+
+    /**
+     * Write one customer, transcoding it when possible and mapping it otherwise
+     *
+     * @param generator the generator to write to
+     * @param transcoder the response's transcoder
+     * @param document the raw customer document
+     * @throws IOException if writing fails
+     */
+    private void writeCustomer(JsonGenerator generator, CustomerJsonTranscoder transcoder,
+                               RawBsonDocument document) throws IOException {
+        if (transcoder.read(document)) {
+            transcoder.write(generator);
+        } else {
+            // Decoded first, as the converter expects Java values rather than BsonValues
+            objectMapper.writeValue(generator, mongoConverter.read(Customer.class, document.decode(documentCodec)));
+        }
+    }
+}
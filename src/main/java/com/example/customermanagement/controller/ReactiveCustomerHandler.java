@@ -0,0 +1,498 @@
+package com.example.customermanagement.controller;
+
+import com.example.customermanagement.model.Customer;
+import com.example.customermanagement.model.CustomerChangeEvent;
+import com.example.customermanagement.model.CustomerFieldSet;
+import com.example.customermanagement.model.CustomerPage;
+import com.example.customermanagement.model.MultiGetRequest;
+import com.example.customermanagement.model.MultiGetResult;
+import com.example.customermanagement.repository.ReactiveCustomerRepository;
+import com.example.customermanagement.service.CustomerChangeCounter;
+import com.example.customermanagement.service.CustomerChangeStreamService;
+import com.example.customermanagement.service.CustomerInsertCoalescer;
+import com.example.customermanagement.service.CustomerReadService;
+import com.example.customermanagement.service.CustomerSearchService;
+import com.example.customermanagement.service.CustomerStatsService;
+import com.example.customermanagement.service.CustomerWriteService;
+import com.example.customermanagement.service.EmailBloomFilter;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * WebFlux handlers serving the same /customers contract as {@link CustomerController}
+ * on the reactive MongoDB driver, active only with the 'reactive' profile.
+ * No request thread is held while MongoDB works, so in-flight requests are bounded by
+ * the connection pool rather than by a worker thread pool. List (with Accept: application/x-ndjson)
+ * and export responses are streamed element by element with Reactive Streams backpressure.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveCustomerHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveCustomerHandler.class);
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    private final ReactiveCustomerRepository customerRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final CustomerSearchService customerSearchService;
+    private final EmailBloomFilter emailBloomFilter;
+    private final CustomerChangeCounter changeCounter;
+    private final CustomerChangeStreamService changeStreamService;
+    private final CustomerInsertCoalescer insertCoalescer;
+    private final CustomerStatsService customerStatsService;
+    private final CustomerReadService customerReadService;
+    private final int defaultPageLimit;
+    private final int maxPageLimit;
+    private final int maxMultiGetIds;
+
+    /**
+     * Constructor-based dependency injection
+     *
+     * @param customerRepository reactive repository for Customer entities
+     * @param mongoTemplate reactive template for updates, deletes, search and export
+     * @param customerSearchService builds the index-backed search queries
+     * @param emailBloomFilter in-memory pre-check for duplicate emails
+     * @param changeCounter counter behind the collection-level ETag
+     * @param changeStreamService shared change stream feeding live events
+     * @param insertCoalescer group-commit inserts, used instead of the reactive repository when enabled
+     * @param customerStatsService cached server-side customer statistics
+     * @param customerReadService builds the sparse fieldset queries
+     * @param defaultPageLimit page size used when the client does not send one
+     * @param maxPageLimit upper bound for client-supplied page sizes
+     * @param maxMultiGetIds upper bound for the number of IDs in one multi-get
+     */
+    @Autowired
+    public ReactiveCustomerHandler(ReactiveCustomerRepository customerRepository,
+                                   ReactiveMongoTemplate mongoTemplate,
+                                   CustomerSearchService customerSearchService,
+                                   EmailBloomFilter emailBloomFilter,
+                                   CustomerChangeCounter changeCounter,
+                                   CustomerChangeStreamService changeStreamService,
+                                   CustomerInsertCoalescer insertCoalescer,
+                                   CustomerStatsService customerStatsService,
+                                   CustomerReadService customerReadService,
+                                   @Value("${customers.page.default-limit:50}") int defaultPageLimit,
+                                   @Value("${customers.page.max-limit:500}") int maxPageLimit,
+                                   @Value("${customers.mget.max-ids:1000}") int maxMultiGetIds) {
+        this.customerRepository = customerRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.customerSearchService = customerSearchService;
+        this.emailBloomFilter = emailBloomFilter;
+        this.changeCounter = changeCounter;
+        this.changeStreamService = changeStreamService;
+        this.insertCoalescer = insertCoalescer;
+        this.customerStatsService = customerStatsService;
+        this.customerReadService = customerReadService;
+        this.defaultPageLimit = defaultPageLimit;
+        this.maxPageLimit = maxPageLimit;
+        this.maxMultiGetIds = maxMultiGetIds;
+    }
+
+    /**
+     * Get one keyset-paginated page of customers.
+     * Returns a {@link CustomerPage} by default, or streams the page's customers as NDJSON
+     * when the client accepts application/x-ndjson. A fields parameter restricts both the
+     * MongoDB projection and the JSON written for each customer. While the change stream is
+     * watching, responses carry the collection-level ETag and a matching If-None-Match is
+     * answered with 304 before querying.
+     *
+     * @param request the server request, with optional limit, after and fields query parameters
+     * @return the page, 304 Not Modified, or 400 Bad Request for an invalid limit, cursor or field
+     */
+    public Mono<ServerResponse> getAllCustomers(ServerRequest request) {
+        String etag = changeCounter.getETag();
+        if (ETags.matchesIfNoneMatch(request.headers().asHttpHeaders().getFirst(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        String after = request.queryParam("after").orElse(null);
+        int limit;
+        CustomerFieldSet fieldSet;
+        Flux<Customer> customers;
+        try {
+            int pageLimit = request.queryParam("limit").map(Integer::parseInt).orElse(defaultPageLimit);
+            if (pageLimit < 1) {
+                return ServerResponse.badRequest().build();
+            }
+            limit = Math.min(pageLimit, maxPageLimit);
+            fieldSet = CustomerFieldSet.parse(request.queryParam("fields").orElse(null));
+            ObjectId afterId = after != null ? CustomerPage.decodeCursor(after) : null;
+
+            // Fetch one extra document to learn whether another page exists, without a count
+            if (fieldSet != null) {
+                customers = mongoTemplate.find(customerReadService.pageQuery(afterId, limit + 1, fieldSet),
+                        Customer.class);
+            } else {
+                PageRequest pageable = PageRequest.of(0, limit + 1);
+                customers = afterId != null
+                        ? customerRepository.findByIdGreaterThanOrderByIdAsc(afterId, pageable)
+                        : customerRepository.findAllByOrderByIdAsc(pageable);
+            }
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid page limit, cursor or fields: {}", request.uri(), e);
+            return ServerResponse.badRequest().build();
+        }
+
+        if (request.headers().accept().contains(APPLICATION_NDJSON)) {
+            ServerResponse.BodyBuilder response = ServerResponse.ok().contentType(APPLICATION_NDJSON)
+                    .cacheControl(CacheControl.noCache());
+            if (etag != null) {
+                response.eTag(etag);
+            }
+            if (fieldSet != null) {
+                return response.body(customers.take(limit).map(fieldSet::project), Map.class);
+            }
+            return response.body(customers.take(limit), Customer.class);
+        }
+
+        return customers.collectList().flatMap(list -> {
+            List<Customer> page = list.size() > limit ? list.subList(0, limit) : list;
+            String nextCursor = null;
+            String next = null;
+            ServerResponse.BodyBuilder response = ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                    .cacheControl(CacheControl.noCache());
+            if (etag != null) {
+                response.eTag(etag);
+            }
+
+            if (list.size() > limit) {
+                nextCursor = CustomerPage.encodeCursor(page.get(page.size() - 1).getId());
+                next = UriComponentsBuilder.fromUri(request.uri())
+                        .replaceQueryParam("limit", limit)
+                        .replaceQueryParam("after", nextCursor)
+                        .toUriString();
+                response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+            }
+            List<?> body = fieldSet != null
+                    ? page.stream().map(fieldSet::project).collect(Collectors.toList())
+                    : page;
+            return response.syncBody(new CustomerPage(body, limit, nextCursor, next));
+        });
+    }
+
+    /**
+     * Stream all customers as newline-delimited JSON.
+     * The driver requests further cursor batches only as the client consumes the response.
+     *
+     * @param request the server request
+     * @return a streaming NDJSON response
+     */
+    public Mono<ServerResponse> exportCustomers(ServerRequest request) {
+        logger.debug("Exporting all customers");
+        Flux<Customer> customers = mongoTemplate.find(
+                new Query().with(Sort.by(Sort.Direction.ASC, "id")), Customer.class);
+        return ServerResponse.ok().contentType(APPLICATION_NDJSON).body(customers, Customer.class);
+    }
+
+    /**
+     * Stream customer inserts, updates and deletes as Server-Sent Events from the shared change stream.
+     * Up to the replay buffer's size of events are buffered for a slow client; beyond that the
+     * stream errors and the client's reconnect with Last-Event-ID replays what it missed.
+     *
+     * @param request the server request, with an optional Last-Event-ID header
+     * @return the event stream, or 503 Service Unavailable if change streams are unavailable
+     */
+    public Mono<ServerResponse> streamEvents(ServerRequest request) {
+        String lastEventId = request.headers().asHttpHeaders().getFirst("Last-Event-ID");
+        logger.debug("Subscribing to customer events, Last-Event-ID: {}", lastEventId);
+        if (!changeStreamService.isAvailable()) {
+            return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        Flux<ServerSentEvent<CustomerChangeEvent>> events = Flux.create(sink -> {
+            CustomerChangeStreamService.Subscriber subscriber = new CustomerChangeStreamService.Subscriber() {
+                @Override
+                public void onEvent(CustomerChangeEvent event) {
+                    sink.next(ServerSentEvent.builder(event).id(event.getEventId()).build());
+                }
+
+                @Override
+                public void onHeartbeat() {
+                    sink.next(ServerSentEvent.<CustomerChangeEvent>builder().comment("heartbeat").build());
+                }
+
+                @Override
+                public void onClose() {
+                    sink.complete();
+                }
+            };
+            sink.onDispose(() -> changeStreamService.unsubscribe(subscriber));
+            changeStreamService.subscribe(subscriber, lastEventId);
+        });
+
+        return ServerResponse.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .cacheControl(CacheControl.noCache())
+                .header("X-Accel-Buffering", "no")
+                .body(BodyInserters.fromServerSentEvents(events.onBackpressureBuffer(1000)));
+    }
+
+    /**
+     * Search customers by name with the same index-backed queries as the servlet stack
+     *
+     * @param request the server request, with q, optional mode and optional limit query parameters
+     * @return matching customers, or 400 Bad Request for a blank term or unknown mode
+     */
+    public Mono<ServerResponse> searchCustomers(ServerRequest request) {
+        String q = request.queryParam("q").orElse("");
+
+        try {
+            int limit = Math.min(request.queryParam("limit").map(Integer::parseInt).orElse(defaultPageLimit), maxPageLimit);
+            if (q.trim().isEmpty() || limit < 1) {
+                return ServerResponse.badRequest().build();
+            }
+            CustomerSearchService.Mode mode = CustomerSearchService.Mode.valueOf(
+                    request.queryParam("mode").orElse("contains").toUpperCase(Locale.ROOT));
+            Flux<Customer> customers = mongoTemplate.find(customerSearchService.buildQuery(q, mode).limit(limit), Customer.class);
+            return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).body(customers, Customer.class);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid search limit or mode: {}", request.uri(), e);
+            return ServerResponse.badRequest().build();
+        }
+    }
+
+    /**
+     * Get the customer statistics. The aggregation runs on the statistics service's own
+     * thread, so a refresh never blocks the event loop.
+     *
+     * @param request the server request
+     * @return the statistics with the time they were computed
+     */
+    public Mono<ServerResponse> getCustomerStats(ServerRequest request) {
+        return Mono.fromFuture(customerStatsService.getStatsAsync())
+                .flatMap(stats -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).syncBody(stats));
+    }
+
+    /**
+     * Get a customer by ID, optionally restricted to a fields parameter.
+     * The customer's version is its strong ETag; a matching If-None-Match is answered with 304.
+     *
+     * @param request the server request, with the id path variable and optional fields query parameter
+     * @return the customer, 304 Not Modified, 404 Not Found, or 400 Bad Request for a malformed ID or unknown field
+     */
+    public Mono<ServerResponse> getCustomerById(ServerRequest request) {
+        String id = request.pathVariable("id");
+        if (!ObjectId.isValid(id)) {
+            return ServerResponse.badRequest().build();
+        }
+
+        CustomerFieldSet fieldSet;
+        try {
+            fieldSet = CustomerFieldSet.parse(request.queryParam("fields").orElse(null));
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid fields: {}", request.uri(), e);
+            return ServerResponse.badRequest().build();
+        }
+
+        ObjectId objectId = new ObjectId(id);
+        String ifNoneMatch = request.headers().asHttpHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+        Mono<Customer> customer = fieldSet != null
+                ? mongoTemplate.findOne(customerReadService.byIdQuery(objectId, fieldSet), Customer.class)
+                : customerRepository.findById(objectId);
+        return customer
+                .flatMap(found -> {
+                    String etag = ETags.of(found);
+                    if (ETags.matchesIfNoneMatch(ifNoneMatch, etag)) {
+                        return ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+                    }
+                    Object body = fieldSet != null ? fieldSet.project(found) : found;
+                    ServerResponse.BodyBuilder response = ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                            .cacheControl(CacheControl.noCache());
+                    if (etag != null) {
+                        response.eTag(etag);
+                    }
+                    return response.syncBody(body);
+                })
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    /**
+     * Get several customers by ID with a single $in query
+     *
+     * @param request the server request with the IDs to resolve as its body
+     * @return one entry per requested ID in request order, or 400 Bad Request if no IDs
+     *         or more than the configured maximum were sent
+     */
+    public Mono<ServerResponse> getCustomersByIds(ServerRequest request) {
+        return request.bodyToMono(MultiGetRequest.class)
+                .flatMap(body -> {
+                    List<String> ids = body.getIds();
+                    if (ids == null || ids.isEmpty() || ids.size() > maxMultiGetIds) {
+                        logger.warn("Invalid multi-get size: {} (max {})", ids != null ? ids.size() : 0, maxMultiGetIds);
+                        return ServerResponse.badRequest().build();
+                    }
+                    return customerRepository.findAllById(MultiGetResult.validIds(ids))
+                            .collectMap(Customer::getId)
+                            .flatMap(found -> ServerResponse.ok()
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .cacheControl(CacheControl.noCache())
+                                    .syncBody(MultiGetResult.of(ids, found)));
+                })
+                .switchIfEmpty(ServerResponse.badRequest().build());
+    }
+
+    /**
+     * Create a new customer, rejecting duplicate emails with 409 Conflict
+     *
+     * @param request the server request with the customer as its body
+     * @return the created customer with 201 Created status
+     */
+    public Mono<ServerResponse> createCustomer(ServerRequest request) {
+        return request.bodyToMono(Customer.class)
+                .flatMap(customer -> isDuplicateEmail(customer.getEmail()).flatMap(duplicate -> {
+                    if (duplicate) {
+                        logger.warn("Customer with email {} already exists", customer.getEmail());
+                        return ServerResponse.status(HttpStatus.CONFLICT).build();
+                    }
+                    // Ensure ID is null for new customers
+                    customer.setId(null);
+                    Mono<Customer> insert = insertCoalescer.isEnabled()
+                            ? Mono.fromFuture(insertCoalescer.insertAsync(customer))
+                            : customerRepository.insert(customer);
+                    return insert.flatMap(created -> {
+                        changeCounter.increment();
+                        emailBloomFilter.put(created.getEmail());
+                        logger.info("Customer created with ID: {}", created.getStringId());
+                        return ServerResponse.status(HttpStatus.CREATED)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .eTag(ETags.of(created))
+                                .syncBody(created);
+                    });
+                }))
+                .onErrorResume(DuplicateKeyException.class, e -> ServerResponse.status(HttpStatus.CONFLICT).build());
+    }
+
+    /**
+     * Update an existing customer with a single findAndModify.
+     * An If-Match ETag becomes a version condition on the same findAndModify.
+     *
+     * @param request the server request, with the id path variable and the changed fields as its body
+     * @return the updated customer, 404 Not Found, 412 Precondition Failed, 409 Conflict, or 400 Bad Request
+     */
+    public Mono<ServerResponse> updateCustomer(ServerRequest request) {
+        String id = request.pathVariable("id");
+        if (!ObjectId.isValid(id)) {
+            return ServerResponse.badRequest().build();
+        }
+        ObjectId objectId = new ObjectId(id);
+
+        String ifMatch = request.headers().asHttpHeaders().getFirst(HttpHeaders.IF_MATCH);
+        Long expectedVersion;
+        try {
+            expectedVersion = ifMatch != null && !ifMatch.trim().equals("*") ? ETags.requiredVersion(ifMatch) : null;
+        } catch (IllegalStateException e) {
+            logger.warn("Unusable If-Match for customer {}: {}", id, ifMatch);
+            return ServerResponse.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+
+        return request.bodyToMono(Customer.class)
+                .flatMap(customer -> {
+                    Update update = CustomerWriteService.toUpdate(customer);
+                    if (update.getUpdateObject().isEmpty()) {
+                        return ServerResponse.badRequest().build();
+                    }
+                    return mongoTemplate.findAndModify(CustomerWriteService.byIdAndVersion(objectId, expectedVersion),
+                            update.inc("version", 1), RETURN_NEW, Customer.class)
+                            .flatMap(updated -> {
+                                changeCounter.increment();
+                                emailBloomFilter.put(updated.getEmail());
+                                logger.info("Customer updated: {}", updated.getStringId());
+                                return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                                        .eTag(ETags.of(updated)).syncBody(updated);
+                            })
+                            .switchIfEmpty(ServerResponse.status(ifMatch != null
+                                    ? HttpStatus.PRECONDITION_FAILED : HttpStatus.NOT_FOUND).build());
+                })
+                .onErrorResume(DuplicateKeyException.class, e -> ServerResponse.status(HttpStatus.CONFLICT).build());
+    }
+
+    /**
+     * Delete a customer by ID, deciding 404 from the DeleteResult
+     *
+     * @param request the server request, with the id path variable
+     * @return 204 No Content, 404 Not Found, or 400 Bad Request for a malformed ID
+     */
+    public Mono<ServerResponse> deleteCustomer(ServerRequest request) {
+        String id = request.pathVariable("id");
+        if (!ObjectId.isValid(id)) {
+            return ServerResponse.badRequest().build();
+        }
+        return mongoTemplate.remove(byId(new ObjectId(id)), Customer.class)
+                .flatMap(result -> {
+                    if (result.getDeletedCount() == 0) {
+                        return ServerResponse.notFound().build();
+                    }
+                    changeCounter.increment();
+                    return ServerResponse.noContent().build();
+                });
+    }
+
+    /**
+     * Delete all customers
+     *
+     * @param request the server request
+     * @return 204 No Content
+     */
+    public Mono<ServerResponse> deleteAllCustomers(ServerRequest request) {
+        return customerRepository.deleteAll()
+                .doOnSuccess(ignored -> changeCounter.increment())
+                .then(ServerResponse.noContent().build());
+    }
+
+    /**
+     * Check whether an email is already used, asking MongoDB only when the Bloom filter cannot rule it out
+     *
+     * @param email the email to check
+     * @return emits true if a customer with the email exists
+     */
+    private Mono<Boolean> isDuplicateEmail(String email) {
+        if (email == null || !emailBloomFilter.mightContain(email)) {
+            return Mono.just(false);
+        }
+        return customerRepository.existsByEmail(email).doOnNext(exists -> {
+            if (!exists) {
+                emailBloomFilter.recordFalsePositive();
+            }
+        });
+    }
+
+    /**
+     * Build a query matching a single customer by _id
+     *
+     * @param id the customer ID
+     * @return the query
+     */
+    private static Query byId(ObjectId id) {
+        return new Query(Criteria.where("id").is(id));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.customermanagement.controller;
+
+import com.example.customermanagement.model.CustomerChangeEvent;
+import com.example.customermanagement.service.CustomerChangeStreamService;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes customer change events to one servlet Server-Sent Events connection.
+ * A failed write is rethrown unchecked, which makes the change stream service drop the subscriber.
+ */
+final class SseChangeSubscriber implements CustomerChangeStreamService.Subscriber {
+
+    private final SseEmitter emitter;
+
+    /**
+     * Create a subscriber writing to the given emitter
+     *
+     * @param emitter the client's event stream
+     */
+    SseChangeSubscriber(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void onEvent(CustomerChangeEvent event) {
+        SseEmitter.SseEventBuilder builder = SseEmitter.event().data(event, MediaType.APPLICATION_JSON);
+        if (event.getEventId() != null) {
+            builder.id(event.getEventId());
+        }
+        send(builder);
+    }
+
+    @Override
+    public void onHeartbeat() {
+        send(SseEmitter.event().comment("heartbeat"));
+    }
+
+    @Override
+    public void onClose() {
+        emitter.complete();
+    }
+
+    /**
+     * Write one event
+     *
+     * @param event the event to write
+     */
+    private void send(SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
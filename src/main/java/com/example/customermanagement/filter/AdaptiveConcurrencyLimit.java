@@ -0,0 +1,186 @@
+package com.example.customermanagement.filter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A concurrency limit that adapts to observed latency with AIMD (additive increase,
+ * multiplicative decrease), as TCP congestion control does for its window.
+ * A request completing within the latency threshold while the limit is at least half used
+ * raises the limit by 1/limit, so by about one per limit's worth of requests; a slow or
+ * failed one multiplies it by the backoff ratio, at most once per threshold interval so a
+ * single burst of slow responses is not counted many times over.
+ * Requests over the limit wait in a short bounded FIFO queue; once it is full, or the wait
+ * expires, they are rejected rather than left to pile up in front of the connection pool.
+ * A {@link ReentrantLock} is used rather than synchronized so waiting never pins a virtual thread.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    /**
+     * Outcome of {@link #acquire()}
+     */
+    public enum Admission {
+        ADMITTED,
+        QUEUE_FULL,
+        TIMED_OUT
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final int maxQueueSize;
+    private final long maxQueueWaitNanos;
+
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private long lastDecreaseNanos;
+
+    /**
+     * Create a limit starting at its maximum
+     *
+     * @param minLimit the limit never drops below this
+     * @param maxLimit the limit never rises above this, and starts here
+     * @param latencyThresholdMillis a request slower than this counts as a congestion signal
+     * @param backoffRatio factor applied to the limit on a congestion signal, between 0 and 1
+     * @param maxQueueSize how many requests may wait for capacity at once
+     * @param maxQueueWaitMillis how long a request may wait for capacity
+     */
+    public AdaptiveConcurrencyLimit(int minLimit, int maxLimit, long latencyThresholdMillis, double backoffRatio,
+                                    int maxQueueSize, long maxQueueWaitMillis) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= max, got " + minLimit + ".." + maxLimit);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1, got " + backoffRatio);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.backoffRatio = backoffRatio;
+        this.maxQueueSize = maxQueueSize;
+        this.maxQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxQueueWaitMillis);
+        this.limit = maxLimit;
+        this.lastDecreaseNanos = System.nanoTime() - latencyThresholdNanos;
+    }
+
+    /**
+     * Take a slot, waiting in the queue for up to the maximum queue wait if none is free.
+     * Every {@link Admission#ADMITTED} must be followed by {@link #release(long, boolean)}.
+     *
+     * @return whether the request was admitted, or why it was rejected
+     * @throws InterruptedException if interrupted while queued
+     */
+    public Admission acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            // Newcomers only go straight in when nobody is queued, keeping the queue FIFO
+            if (queued == 0 && inFlight < currentLimit()) {
+                inFlight++;
+                return Admission.ADMITTED;
+            }
+            if (queued >= maxQueueSize) {
+                return Admission.QUEUE_FULL;
+            }
+
+            queued++;
+            try {
+                long remaining = maxQueueWaitNanos;
+                while (inFlight >= currentLimit()) {
+                    if (remaining <= 0) {
+                        return Admission.TIMED_OUT;
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+                inFlight++;
+                return Admission.ADMITTED;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Return a slot and adjust the limit from the request's outcome
+     *
+     * @param latencyNanos how long the admitted request took
+     * @param failed whether the request failed on the server side
+     */
+    public void release(long latencyNanos, boolean failed) {
+        lock.lock();
+        try {
+            boolean wasBusy = inFlight * 2 >= limit;
+            inFlight--;
+            long now = System.nanoTime();
+            if (failed || latencyNanos > latencyThresholdNanos) {
+                if (now - lastDecreaseNanos >= latencyThresholdNanos) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecreaseNanos = now;
+                }
+            } else if (wasBusy) {
+                // Only grow when the limit is actually being used, so it cannot drift up while idle
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the current limit
+     *
+     * @return the number of requests currently allowed to run at once
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return currentLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of admitted requests still running
+     *
+     * @return the in-flight count
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of requests waiting for capacity
+     *
+     * @return the queue length
+     */
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The limit as a whole number of requests; call with the lock held
+     *
+     * @return the current limit, rounded down
+     */
+    private int currentLimit() {
+        return (int) limit;
+    }
+}
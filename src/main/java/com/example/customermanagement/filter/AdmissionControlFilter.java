@@ -0,0 +1,133 @@
+package com.example.customermanagement.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for the customer API, with separate adaptive limits for reads
+ * (GET and HEAD, plus the POSTed multi-get) and writes, so a burst of one cannot use up
+ * the capacity of the other.
+ * Each limit adapts to the latency of the requests it admits, which is dominated by their
+ * MongoDB round trips. Requests beyond the limit wait briefly, then are shed with a
+ * Retry-After header: 429 Too Many Requests when the queue is already full, 503 Service
+ * Unavailable when no capacity freed up in time. This keeps Tomcat's workers from piling
+ * up behind the connection pool until requests fail with a timeout.
+ * The event stream and the export are long-lived and not counted.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    private final Limit reads;
+    private final Limit writes;
+    private final String retryAfterSeconds;
+
+    /**
+     * Create a filter applying the given limits
+     *
+     * @param readLimit limit for GET and HEAD requests and multi-gets
+     * @param writeLimit limit for every other method
+     * @param retryAfterSeconds Retry-After sent with rejections
+     * @param meterRegistry registry for the limit, queue and rejection metrics
+     */
+    public AdmissionControlFilter(AdaptiveConcurrencyLimit readLimit, AdaptiveConcurrencyLimit writeLimit,
+                                  long retryAfterSeconds, MeterRegistry meterRegistry) {
+        this.reads = new Limit("read", readLimit, meterRegistry);
+        this.writes = new Limit("write", writeLimit, meterRegistry);
+        this.retryAfterSeconds = Long.toString(Math.max(1, retryAfterSeconds));
+        logger.info("Admission control enabled: read limit {}, write limit {}", readLimit.getLimit(), writeLimit.getLimit());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.equals("/customers/events") || path.equals("/customers/export");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String method = request.getMethod();
+        boolean read = "GET".equals(method) || "HEAD".equals(method) || request.getRequestURI().endsWith("/_mget");
+        Limit kind = read ? reads : writes;
+
+        long queuedAt = System.nanoTime();
+        AdaptiveConcurrencyLimit.Admission admission;
+        try {
+            admission = kind.limit.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admission = AdaptiveConcurrencyLimit.Admission.TIMED_OUT;
+        }
+        long admittedAt = System.nanoTime();
+        kind.queueTime.record(admittedAt - queuedAt, TimeUnit.NANOSECONDS);
+
+        if (admission != AdaptiveConcurrencyLimit.Admission.ADMITTED) {
+            boolean queueFull = admission == AdaptiveConcurrencyLimit.Admission.QUEUE_FULL;
+            (queueFull ? kind.rejectedQueueFull : kind.rejectedTimeout).increment();
+            logger.warn("Shedding {} {}: {} limit {} reached ({})", method, request.getRequestURI(),
+                    kind.name, kind.limit.getLimit(), queueFull ? "queue full" : "queue wait expired");
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.sendError(queueFull ? HttpStatus.TOO_MANY_REQUESTS.value() : HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            kind.limit.release(System.nanoTime() - admittedAt, failed);
+        }
+    }
+
+    /**
+     * One adaptive limit with its metrics
+     */
+    private static final class Limit {
+
+        private final String name;
+        private final AdaptiveConcurrencyLimit limit;
+        private final Timer queueTime;
+        private final Counter rejectedQueueFull;
+        private final Counter rejectedTimeout;
+
+        Limit(String name, AdaptiveConcurrencyLimit limit, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.limit = limit;
+            Gauge.builder("customers.admission.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                    .tag("kind", name).register(meterRegistry);
+            Gauge.builder("customers.admission.inflight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                    .tag("kind", name).register(meterRegistry);
+            Gauge.builder("customers.admission.queued", limit, AdaptiveConcurrencyLimit::getQueued)
+                    .tag("kind", name).register(meterRegistry);
+            this.queueTime = Timer.builder("customers.admission.queue.time")
+                    .description("Time requests waited for admission, including rejected ones")
+                    .tag("kind", name)
+                    .register(meterRegistry);
+            this.rejectedQueueFull = rejectedCounter(meterRegistry, name, "queue-full");
+            this.rejectedTimeout = rejectedCounter(meterRegistry, name, "timeout");
+        }
+
+        private static Counter rejectedCounter(MeterRegistry meterRegistry, String kind, String reason) {
+            return Counter.builder("customers.admission.rejected")
+                    .tag("kind", kind)
+                    .tag("reason", reason)
+                    .register(meterRegistry);
+        }
+    }
+}
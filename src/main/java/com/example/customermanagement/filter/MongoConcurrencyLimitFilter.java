@@ -0,0 +1,86 @@
+package com.example.customermanagement.filter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds the number of requests working against MongoDB at once.
+ * With one virtual thread per request there is no worker pool to cap concurrency, so
+ * thousands of requests would otherwise pile into the driver's connection wait queue
+ * and fail once it is full. Requests instead park on a fair semaphore sized to the
+ * connection pool, which is cheap for a virtual thread, and get 503 if no permit
+ * frees up within the pool's own wait time.
+ * A {@link Semaphore} is used rather than a synchronized block so waiting never pins
+ * a virtual thread to its carrier.
+ */
+public class MongoConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoConcurrencyLimitFilter.class);
+
+    private final Semaphore permits;
+    private final long maxWaitMillis;
+
+    /**
+     * Create a filter admitting at most the given number of concurrent requests
+     *
+     * @param maxConcurrentRequests number of requests allowed to run at once
+     * @param maxWaitMillis how long a request may wait for a permit before it is rejected
+     */
+    public MongoConcurrencyLimitFilter(int maxConcurrentRequests, long maxWaitMillis) {
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.maxWaitMillis = maxWaitMillis;
+        logger.info("Limiting concurrent customer requests to {} (wait up to {} ms)", maxConcurrentRequests, maxWaitMillis);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            logger.warn("No capacity for {} {} within {} ms", request.getMethod(), request.getRequestURI(), maxWaitMillis);
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Get the number of permits currently free
+     *
+     * @return the available permits
+     */
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Get the number of requests waiting for a permit
+     *
+     * @return the estimated queue length
+     */
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.customermanagement.filter;
+
+import com.example.customermanagement.service.ReadPreferenceRouter;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Opens a routed scope of {@link ReadPreferenceRouter} for GET requests to the routed
+ * customer endpoints, so their reads may be served by secondaries.
+ * A client's own writes are not yet on a lagging secondary, so every write request sets a
+ * short-lived cookie, and GET requests carrying it stay on the primary until it expires.
+ * The cookie is set before the write runs, since the response may already be committed
+ * once it returns; a failed write only costs the client a few primary reads.
+ */
+public class ReadRoutingFilter extends OncePerRequestFilter {
+
+    /** Cookie marking a client that wrote within the primary-after-write window */
+    public static final String RECENT_WRITE_COOKIE = "customers-recent-write";
+
+    private final ReadPreferenceRouter readPreferenceRouter;
+
+    /**
+     * Create a filter routing with the given router
+     *
+     * @param readPreferenceRouter the configured routing
+     */
+    public ReadRoutingFilter(ReadPreferenceRouter readPreferenceRouter) {
+        this.readPreferenceRouter = readPreferenceRouter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            if (!path.endsWith("/_mget")) {
+                markRecentWrite(request, response);
+            }
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ReadPreferenceRouter.Endpoint endpoint = endpointOf(path);
+        if (endpoint == null || !readPreferenceRouter.isRouted(endpoint) || hasRecentWrite(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        readPreferenceRouter.setCurrent(readPreferenceRouter.getReadPreference());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            readPreferenceRouter.setCurrent(null);
+        }
+    }
+
+    /**
+     * Map a request path to the endpoint it reads from
+     *
+     * @param path the path within the application
+     * @return the endpoint, or null for paths whose reads are never routed
+     */
+    static ReadPreferenceRouter.Endpoint endpointOf(String path) {
+        if (path.equals("/customers") || path.equals("/customers/")) {
+            return ReadPreferenceRouter.Endpoint.LIST;
+        }
+        if (!path.startsWith("/customers/")) {
+            return null;
+        }
+        String rest = path.substring("/customers/".length());
+        switch (rest) {
+            case "search":
+                return ReadPreferenceRouter.Endpoint.SEARCH;
+            case "export":
+                return ReadPreferenceRouter.Endpoint.EXPORT;
+            case "stats":
+            case "events":
+                return null;
+            default:
+                return rest.indexOf('/') < 0 ? ReadPreferenceRouter.Endpoint.GET : null;
+        }
+    }
+
+    /**
+     * Check whether the client wrote within the primary-after-write window
+     *
+     * @param request the request
+     * @return true if the request carries the recent-write cookie
+     */
+    private static boolean hasRecentWrite(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (RECENT_WRITE_COOKIE.equals(cookie.getName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Keep the client's reads on the primary for the primary-after-write window
+     *
+     * @param request the write request
+     * @param response the response to set the cookie on
+     */
+    private void markRecentWrite(HttpServletRequest request, HttpServletResponse response) {
+        Cookie cookie = new Cookie(RECENT_WRITE_COOKIE, "1");
+        cookie.setPath(request.getContextPath() + "/customers");
+        cookie.setMaxAge((int) readPreferenceRouter.getPrimaryAfterWriteSeconds());
+        cookie.setHttpOnly(true);
+        response.addCookie(cookie);
+    }
+}
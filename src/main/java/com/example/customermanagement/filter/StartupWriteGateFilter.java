@@ -0,0 +1,54 @@
+package com.example.customermanagement.filter;
+
+import com.example.customermanagement.service.StartupInitializationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Rejects customer writes with 503 while deferred startup initialization is still running.
+ * Until then the unique email index may not exist yet, so a write could store a duplicate
+ * email that the index build later fails on. Reads, including POST /customers/_mget, are
+ * served as usual.
+ */
+public class StartupWriteGateFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupWriteGateFilter.class);
+
+    private final StartupInitializationService startupInitializationService;
+    private final String retryAfterSeconds;
+
+    /**
+     * Create a filter gating writes on the given startup initialization
+     *
+     * @param startupInitializationService tells when writes are safe
+     * @param retryAfterSeconds Retry-After sent with rejections
+     */
+    public StartupWriteGateFilter(StartupInitializationService startupInitializationService, long retryAfterSeconds) {
+        this.startupInitializationService = startupInitializationService;
+        this.retryAfterSeconds = Long.toString(retryAfterSeconds);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String method = request.getMethod();
+        boolean read = "GET".equals(method) || "HEAD".equals(method) || request.getRequestURI().endsWith("/_mget");
+        if (read || startupInitializationService.acceptsWrites()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        logger.warn("Rejecting {} {}: startup initialization not finished", method, request.getRequestURI());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.customermanagement.metrics;
+
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.mongodb.event.ConnectionAddedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolClosedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import com.mongodb.event.ConnectionPoolOpenedEvent;
+import com.mongodb.event.ConnectionPoolWaitQueueEnteredEvent;
+import com.mongodb.event.ConnectionPoolWaitQueueExitedEvent;
+import com.mongodb.event.ConnectionRemovedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.bson.BsonValue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes MongoDB driver events as Micrometer metrics.
+ * Commands are timed per command name, collection and outcome; connection pools report
+ * their total, in-use, idle and waiting counts per server. Checkout wait time is timed for
+ * the sync client only, whose checkouts enter and leave the wait queue on the calling thread;
+ * the driver's wait queue events carry no id linking an exit to its entry, and the reactive
+ * client's checkouts enter and exit on different threads, so its waits are not covered.
+ * All figures come from driver callbacks, so scraping them never touches MongoDB.
+ * One listener can serve several MongoClients built from the same settings: each event's
+ * cluster id tells them apart, and its description becomes the client tag.
+ */
+public class MongoMetricsListener implements CommandListener, ConnectionPoolListener {
+
+    /**
+     * Cluster description, and client tag, of the blocking MongoClient
+     */
+    public static final String SYNC_CLIENT = "sync";
+
+    /**
+     * Cluster description, and client tag, of the reactive MongoClient
+     */
+    public static final String REACTIVE_CLIENT = "reactive";
+
+    private final MeterRegistry meterRegistry;
+    // When the calling thread entered a sync pool's wait queue
+    private final ThreadLocal<Long> waitQueueEnteredAt = new ThreadLocal<>();
+    private final Map<Integer, String> collectionsByRequest = new ConcurrentHashMap<>();
+    private final Map<ServerId, PoolStats> pools = new ConcurrentHashMap<>();
+
+    /**
+     * Create a listener publishing to the given registry
+     *
+     * @param meterRegistry the registry to publish to
+     */
+    public MongoMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        // For CRUD commands the command name's value is the target collection; getMore names it separately
+        BsonValue target = "getMore".equals(event.getCommandName())
+                ? event.getCommand().get("collection")
+                : event.getCommand().get(event.getCommandName());
+        if (target != null && target.isString()) {
+            collectionsByRequest.put(event.getRequestId(), target.asString().getValue());
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        commandTimer(event, collectionsByRequest.remove(event.getRequestId()), "success")
+                .record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        commandTimer(event, collectionsByRequest.remove(event.getRequestId()), "failure")
+                .record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void connectionPoolOpened(ConnectionPoolOpenedEvent event) {
+        pool(event.getServerId());
+    }
+
+    @Override
+    public void connectionPoolClosed(ConnectionPoolClosedEvent event) {
+        PoolStats stats = pools.get(event.getServerId());
+        if (stats != null) {
+            stats.size.set(0);
+            stats.checkedOut.set(0);
+            stats.waitQueueSize.set(0);
+        }
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        pool(event.getConnectionId().getServerId()).checkedOut.incrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+        pool(event.getConnectionId().getServerId()).checkedOut.decrementAndGet();
+    }
+
+    @Override
+    public void waitQueueEntered(ConnectionPoolWaitQueueEnteredEvent event) {
+        PoolStats stats = pool(event.getServerId());
+        stats.waitQueueSize.incrementAndGet();
+        if (stats.checkoutWait != null) {
+            waitQueueEnteredAt.set(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void waitQueueExited(ConnectionPoolWaitQueueExitedEvent event) {
+        PoolStats stats = pool(event.getServerId());
+        stats.waitQueueSize.decrementAndGet();
+        Long enteredAt = waitQueueEnteredAt.get();
+        if (stats.checkoutWait != null && enteredAt != null) {
+            waitQueueEnteredAt.remove();
+            stats.checkoutWait.record(System.nanoTime() - enteredAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void connectionAdded(ConnectionAddedEvent event) {
+        pool(event.getConnectionId().getServerId()).size.incrementAndGet();
+    }
+
+    @Override
+    public void connectionRemoved(ConnectionRemovedEvent event) {
+        pool(event.getConnectionId().getServerId()).size.decrementAndGet();
+    }
+
+    /**
+     * Get the latency timer for one client, command name, collection and outcome
+     *
+     * @param event the finished command
+     * @param collection the target collection, or null for non-collection commands
+     * @param status "success" or "failure"
+     * @return the timer
+     */
+    private Timer commandTimer(CommandEvent event, String collection, String status) {
+        return Timer.builder("mongodb.driver.commands")
+                .description("Latency of MongoDB commands")
+                .tags("client", client(event.getConnectionDescription().getConnectionId().getServerId()),
+                        "command", event.getCommandName(),
+                        "collection", collection != null ? collection : "none", "status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get or register the gauges for one client's connection pool to one server
+     *
+     * @param serverId the client's cluster id and the server address
+     * @return the pool's counters
+     */
+    private PoolStats pool(ServerId serverId) {
+        return pools.computeIfAbsent(serverId, key -> new PoolStats(meterRegistry,
+                Tags.of("client", client(key), "server", key.getAddress().toString()),
+                SYNC_CLIENT.equals(client(key))));
+    }
+
+    /**
+     * Get the client tag of a server: the description of the client's cluster settings
+     *
+     * @param serverId the server id
+     * @return the description, or "default" if the client has none
+     */
+    private static String client(ServerId serverId) {
+        ClusterId clusterId = serverId.getClusterId();
+        return clusterId.getDescription() != null ? clusterId.getDescription() : "default";
+    }
+
+    /**
+     * Live counters for one connection pool, backing its gauges, and its checkout wait timer.
+     */
+    private static final class PoolStats {
+
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicInteger checkedOut = new AtomicInteger();
+        private final AtomicInteger waitQueueSize = new AtomicInteger();
+        // Null unless waits are timed, i.e. for the sync client
+        private final Timer checkoutWait;
+
+        PoolStats(MeterRegistry registry, Tags tags, boolean timeCheckouts) {
+            Gauge.builder("mongodb.driver.pool.size", size, AtomicInteger::get)
+                    .description("Connections currently open, in use or idle")
+                    .tags(tags).register(registry);
+            Gauge.builder("mongodb.driver.pool.inuse", checkedOut, AtomicInteger::get)
+                    .description("Connections currently checked out")
+                    .tags(tags).register(registry);
+            Gauge.builder("mongodb.driver.pool.idle", this, stats -> stats.size.get() - stats.checkedOut.get())
+                    .description("Connections open but not checked out")
+                    .tags(tags).register(registry);
+            Gauge.builder("mongodb.driver.pool.waitqueuesize", waitQueueSize, AtomicInteger::get)
+                    .description("Operations waiting for a connection")
+                    .tags(tags).register(registry);
+            checkoutWait = timeCheckouts
+                    ? Timer.builder("mongodb.driver.pool.checkout.wait")
+                            .description("Time spent waiting to check out a connection")
+                            .tags(tags)
+                            .publishPercentileHistogram()
+                            .register(registry)
+                    : null;
+        }
+    }
+}
@@ -0,0 +1,488 @@
+package com.example.customermanagement.metrics;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records MongoDB CRUD commands slower than customers.slow-ops.threshold-ms, whichever
+ * repository or template issued them, in a bounded in-memory ring buffer of the most recent
+ * ones. Each entry keeps the command's filter shape, with every literal value replaced by
+ * "?" so no customer data is retained, plus its duration and the number of documents returned.
+ * A sample of slow reads (customers.slow-ops.explain-sample-rate) is re-run as an
+ * executionStats explain on a background thread, one at a time, adding the documents and
+ * keys examined and the winning plan. Explaining re-executes the query, so the rate is 0 by
+ * default. Slow commands are also logged at WARN and counted. A getMore that carries maxTimeMS
+ * belongs to an awaitData cursor, such as the change stream's, which waits on purpose while
+ * there is nothing new, so those are not recorded. Failures keep the server's error code and
+ * code name only, since error messages can quote customer data (a duplicate key, for one).
+ * Registered as a command listener on every MongoClient, next to {@link MongoMetricsListener}.
+ */
+@Component
+public class SlowOperationRecorder implements CommandListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowOperationRecorder.class);
+
+    private static final Set<String> RECORDED = new HashSet<>(Arrays.asList(
+            "find", "aggregate", "count", "distinct", "findAndModify", "update", "delete", "insert", "getMore"));
+    private static final Set<String> EXPLAINABLE = new HashSet<>(Arrays.asList("find", "aggregate", "count", "distinct"));
+    // Fields the driver adds to every command, which explain does not accept
+    private static final Set<String> DRIVER_FIELDS = new HashSet<>(Arrays.asList(
+            "$db", "lsid", "$clusterTime", "$readPreference", "txnNumber", "autocommit", "startTransaction"));
+    private static final String REDACTED = "?";
+
+    private final ObjectProvider<MongoClient> mongoClient;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long thresholdNanos;
+    private final int capacity;
+    private final double explainSampleRate;
+    private final Map<Integer, Started> started = new ConcurrentHashMap<>();
+    private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicBoolean explaining = new AtomicBoolean();
+    private final ExecutorService explainer;
+
+    /**
+     * Constructor-based dependency injection
+     *
+     * @param mongoClient the blocking MongoClient, looked up when a plan is first explained
+     * @param meterRegistry registry for the slow-operation counter
+     * @param enabled whether to record slow operations at all
+     * @param thresholdMillis duration from which a command counts as slow
+     * @param capacity number of recent slow operations kept
+     * @param explainSampleRate fraction of slow reads to explain, from 0 to 1
+     */
+    @Autowired
+    public SlowOperationRecorder(ObjectProvider<MongoClient> mongoClient,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${customers.slow-ops.enabled:true}") boolean enabled,
+                                 @Value("${customers.slow-ops.threshold-ms:100}") long thresholdMillis,
+                                 @Value("${customers.slow-ops.capacity:100}") int capacity,
+                                 @Value("${customers.slow-ops.explain-sample-rate:0}") double explainSampleRate) {
+        if (explainSampleRate < 0 || explainSampleRate > 1) {
+            throw new IllegalArgumentException("Explain sample rate must be between 0 and 1, got " + explainSampleRate);
+        }
+        this.mongoClient = mongoClient;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.capacity = capacity;
+        this.explainSampleRate = explainSampleRate;
+        this.explainer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "slow-operation-explain");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (!enabled || !RECORDED.contains(event.getCommandName())) {
+            return;
+        }
+        // The command is only readable during the callback, so keep the redacted shape and, for
+        // reads that may be explained, its fields (decoded copies of the wire buffer)
+        BsonDocument command = event.getCommand();
+        boolean getMore = "getMore".equals(event.getCommandName());
+        if (getMore && command.containsKey("maxTimeMS")) {
+            return;
+        }
+        // A getMore names its cursor id; the collection is in a field of its own
+        BsonValue target = getMore ? command.get("collection") : command.get(event.getCommandName());
+        BsonDocument explainable = null;
+        if (explainSampleRate > 0 && EXPLAINABLE.contains(event.getCommandName())) {
+            explainable = new BsonDocument();
+            for (Map.Entry<String, BsonValue> field : command.entrySet()) {
+                if (!DRIVER_FIELDS.contains(field.getKey())) {
+                    explainable.put(field.getKey(), field.getValue());
+                }
+            }
+        }
+        started.put(event.getRequestId(), new Started(event.getDatabaseName(),
+                target != null && target.isString() ? target.asString().getValue() : null,
+                filterShape(event.getCommandName(), command), explainable));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        Started command = started.remove(event.getRequestId());
+        if (command != null && event.getElapsedTime(TimeUnit.NANOSECONDS) >= thresholdNanos) {
+            record(event.getCommandName(), command, event.getElapsedTime(TimeUnit.NANOSECONDS),
+                    docsReturned(event.getCommandName(), event.getResponse()), null);
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        Started command = started.remove(event.getRequestId());
+        if (command != null && event.getElapsedTime(TimeUnit.NANOSECONDS) >= thresholdNanos) {
+            record(event.getCommandName(), command, event.getElapsedTime(TimeUnit.NANOSECONDS),
+                    null, errorCode(event.getThrowable()));
+        }
+    }
+
+    /**
+     * Stops the explain thread
+     */
+    @PreDestroy
+    public void stop() {
+        explainer.shutdownNow();
+    }
+
+    /**
+     * Get the recorder's settings and recent slow operations
+     *
+     * @return threshold, capacity, explain sample rate, total recorded and the entries, newest first
+     */
+    public Map<String, Object> getStatus() {
+        List<Entry> recent;
+        synchronized (entries) {
+            recent = new ArrayList<>(entries);
+        }
+        Collections.reverse(recent);
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("thresholdMillis", TimeUnit.NANOSECONDS.toMillis(thresholdNanos));
+        status.put("capacity", capacity);
+        status.put("explainSampleRate", explainSampleRate);
+        status.put("recorded", recorded.get());
+        status.put("operations", recent);
+        return status;
+    }
+
+    /**
+     * Add a slow command to the ring buffer, and queue an explain if it is sampled
+     *
+     * @param commandName the command name
+     * @param command what was kept of the command when it started
+     * @param elapsedNanos how long it took
+     * @param docsReturned documents returned or written, or null if unknown
+     * @param error the failure's error code, or null if it succeeded
+     */
+    private void record(String commandName, Started command, long elapsedNanos, Long docsReturned, String error) {
+        Entry entry = new Entry(Instant.now().toString(), commandName, command.database, command.collection,
+                command.filter, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), docsReturned, error);
+        synchronized (entries) {
+            if (entries.size() >= capacity) {
+                entries.removeFirst();
+            }
+            entries.addLast(entry);
+        }
+        recorded.incrementAndGet();
+        Counter.builder("customers.mongodb.slow.operations")
+                .description("MongoDB commands slower than the slow-operation threshold")
+                .tag("command", commandName)
+                .register(meterRegistry)
+                .increment();
+        logger.warn("Slow MongoDB {} on {}.{}: {} ms, {} docs returned, filter {}", commandName,
+                command.database, command.collection, entry.durationMillis, docsReturned,
+                command.filter != null ? command.filter.toJson() : "-");
+
+        if (command.explainable != null && error == null
+                && ThreadLocalRandom.current().nextDouble() < explainSampleRate
+                && explaining.compareAndSet(false, true)) {
+            try {
+                explainer.execute(() -> explain(entry, command));
+            } catch (RuntimeException e) {
+                explaining.set(false);
+            }
+        }
+    }
+
+    /**
+     * Re-run a slow read as an executionStats explain and add its figures to the entry.
+     * Runs on the explain thread; the explain command itself is not recorded.
+     *
+     * @param entry the entry to complete
+     * @param command the kept copy of the command
+     */
+    private void explain(Entry entry, Started command) {
+        try {
+            Document explain = mongoClient.getObject().getDatabase(command.database)
+                    .runCommand(new BsonDocument("explain", command.explainable)
+                            .append("verbosity", new BsonString("executionStats")));
+
+            // An aggregation's explain nests the query's under its first stage's $cursor
+            Document source = explain;
+            if (!explain.containsKey("queryPlanner") && explain.get("stages") instanceof List) {
+                Object first = ((List<?>) explain.get("stages")).get(0);
+                if (first instanceof Document && ((Document) first).get("$cursor") instanceof Document) {
+                    source = (Document) ((Document) first).get("$cursor");
+                }
+            }
+            Document executionStats = (Document) source.get("executionStats");
+            Document queryPlanner = (Document) source.get("queryPlanner");
+            if (executionStats != null) {
+                entry.docsExamined = ((Number) executionStats.get("totalDocsExamined")).longValue();
+                entry.keysExamined = ((Number) executionStats.get("totalKeysExamined")).longValue();
+            }
+            if (queryPlanner != null && queryPlanner.get("winningPlan") instanceof Document) {
+                StringBuilder stages = new StringBuilder();
+                for (Document stage = (Document) queryPlanner.get("winningPlan"); stage != null;
+                     stage = (Document) stage.get("inputStage")) {
+                    stages.append(stages.length() > 0 ? " <- " : "").append(stage.getString("stage"));
+                    if (stage.containsKey("indexName")) {
+                        stages.append(" ").append(stage.getString("indexName"));
+                    }
+                }
+                entry.plan = stages.toString();
+            }
+        } catch (RuntimeException e) {
+            logger.debug("Could not explain slow {} on {}.{}", entry.command, command.database, command.collection, e);
+            entry.plan = "explain failed: " + e.getMessage();
+        } finally {
+            explaining.set(false);
+        }
+    }
+
+    /**
+     * Get the redacted filter of a command: the filter, query or pipeline it selects documents with
+     *
+     * @param commandName the command name
+     * @param command the command
+     * @return the filter with literals replaced by "?", or null for commands without one
+     */
+    private static Document filterShape(String commandName, BsonDocument command) {
+        BsonValue filter;
+        switch (commandName) {
+            case "find":
+                filter = command.get("filter");
+                break;
+            case "count":
+            case "distinct":
+            case "findAndModify":
+                filter = command.get("query");
+                break;
+            case "aggregate":
+                return command.isArray("pipeline")
+                        ? new Document("pipeline", redact(command.getArray("pipeline")))
+                        : null;
+            case "update":
+            case "delete":
+                // Bulk writes carry many statements; the first one's filter stands for the batch
+                BsonArray statements = command.isArray(commandName + "s") ? command.getArray(commandName + "s") : null;
+                filter = statements != null && !statements.isEmpty() && statements.get(0).isDocument()
+                        ? statements.get(0).asDocument().get("q")
+                        : null;
+                break;
+            default:
+                filter = null;
+        }
+        return filter != null && filter.isDocument() ? (Document) redact(filter) : null;
+    }
+
+    /**
+     * Replace every literal in a filter with "?", keeping field names, operators and field
+     * paths ("$name"). An array of literals, such as an $in list, becomes ["?"].
+     *
+     * @param value the value to redact
+     * @return the redacted value, as Document, List or String
+     */
+    private static Object redact(BsonValue value) {
+        if (value.isDocument()) {
+            Document shape = new Document();
+            for (Map.Entry<String, BsonValue> field : value.asDocument().entrySet()) {
+                shape.put(field.getKey(), redact(field.getValue()));
+            }
+            return shape;
+        }
+        if (value.isArray()) {
+            List<Object> shape = new ArrayList<>();
+            boolean literals = true;
+            for (BsonValue element : value.asArray()) {
+                literals &= !element.isDocument() && !element.isArray();
+            }
+            if (literals) {
+                shape.add(REDACTED);
+                return shape;
+            }
+            for (BsonValue element : value.asArray()) {
+                shape.add(redact(element));
+            }
+            return shape;
+        }
+        if (value.isString() && value.asString().getValue().startsWith("$")) {
+            return value.asString().getValue();
+        }
+        return REDACTED;
+    }
+
+    /**
+     * Describe a failure by its error code and code name, leaving out the message
+     *
+     * @param failure the exception the command failed with
+     * @return e.g. "11000 DuplicateKey", or the exception's class name if it has no code
+     */
+    private static String errorCode(Throwable failure) {
+        if (failure instanceof MongoCommandException) {
+            MongoCommandException commandException = (MongoCommandException) failure;
+            return commandException.getErrorCode() + " " + commandException.getErrorCodeName();
+        }
+        if (failure instanceof MongoException && ((MongoException) failure).getCode() != -1) {
+            return Integer.toString(((MongoException) failure).getCode());
+        }
+        return failure.getClass().getSimpleName();
+    }
+
+    /**
+     * Count the documents a command returned or wrote, from its reply
+     *
+     * @param commandName the command name
+     * @param response the reply
+     * @return the count, or null if the reply does not say
+     */
+    private static Long docsReturned(String commandName, BsonDocument response) {
+        switch (commandName) {
+            case "find":
+            case "aggregate":
+            case "getMore":
+                BsonDocument cursor = response.isDocument("cursor") ? response.getDocument("cursor") : null;
+                if (cursor == null) {
+                    return null;
+                }
+                BsonValue batch = cursor.containsKey("firstBatch") ? cursor.get("firstBatch") : cursor.get("nextBatch");
+                return batch != null && batch.isArray() ? (long) batch.asArray().size() : null;
+            case "distinct":
+                return response.isArray("values") ? (long) response.getArray("values").size() : null;
+            case "findAndModify":
+                return response.isDocument("value") ? 1L : 0L;
+            case "update":
+                return response.isNumber("nModified") ? response.getNumber("nModified").longValue() : null;
+            default:
+                // count, delete and insert report n
+                return response.isNumber("n") ? response.getNumber("n").longValue() : null;
+        }
+    }
+
+    /**
+     * What is kept of a recorded command between its start and its end
+     */
+    private static final class Started {
+
+        private final String database;
+        private final String collection;
+        private final Document filter;
+        private final BsonDocument explainable;
+
+        Started(String database, String collection, Document filter, BsonDocument explainable) {
+            this.database = database;
+            this.collection = collection;
+            this.filter = filter;
+            this.explainable = explainable;
+        }
+    }
+
+    /**
+     * One recorded slow operation; the explain figures are filled in later when it is sampled
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static final class Entry {
+
+        private final String timestamp;
+        private final String command;
+        private final String database;
+        private final String collection;
+        private final Document filter;
+        private final long durationMillis;
+        private final Long docsReturned;
+        private final String error;
+        private volatile Long docsExamined;
+        private volatile Long keysExamined;
+        private volatile String plan;
+
+        Entry(String timestamp, String command, String database, String collection, Document filter,
+              long durationMillis, Long docsReturned, String error) {
+            this.timestamp = timestamp;
+            this.command = command;
+            this.database = database;
+            this.collection = collection;
+            this.filter = filter;
+            this.durationMillis = durationMillis;
+            this.docsReturned = docsReturned;
+            this.error = error;
+        }
+
+        public String getTimestamp() {
+            return timestamp;
+        }
+
+        public String getCommand() {
+            return command;
+        }
+
+        public String getDatabase() {
+            return database;
+        }
+
+        public String getCollection() {
+            return collection;
+        }
+
+        public Document getFilter() {
+            return filter;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        public Long getDocsReturned() {
+            return docsReturned;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public Long getDocsExamined() {
+            return docsExamined;
+        }
+
+        public Long getKeysExamined() {
+            return keysExamined;
+        }
+
+        public String getPlan() {
+            return plan;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.customermanagement.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk customer import.
+ * Reports success and failure counts for every batch that was written,
+ * plus overall totals and the measured throughput of the import. An import stopped by
+ * malformed input also names the record it stopped at and the parse error.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkImportResult {
+
+    private final List<BatchResult> batches = new ArrayList<>();
+    private long inserted;
+    private long failed;
+    private long duplicates;
+    private long elapsedMillis;
+    private Long parseErrorRecord;
+    private String parseError;
+
+    /**
+     * Record the outcome of one batch and add it to the totals
+     *
+     * @param batch the batch outcome
+     */
+    public void addBatch(BatchResult batch) {
+        batches.add(batch);
+        inserted += batch.getInserted();
+        failed += batch.getFailed();
+        duplicates += batch.getDuplicates();
+    }
+
+    /**
+     * Get the per-batch outcomes, in input order
+     *
+     * @return the batch outcomes
+     */
+    public List<BatchResult> getBatches() {
+        return batches;
+    }
+
+    /**
+     * Get the total number of records received
+     *
+     * @return inserted plus failed records
+     */
+    public long getReceived() {
+        return inserted + failed;
+    }
+
+    /**
+     * Get the total number of customers inserted
+     *
+     * @return the number of inserted customers
+     */
+    public long getInserted() {
+        return inserted;
+    }
+
+    /**
+     * Get the total number of customers that could not be inserted
+     *
+     * @return the number of failed customers, duplicates included
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * Get the number of customers rejected because their email already exists
+     *
+     * @return the number of duplicate-email rejections
+     */
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * Get the wall-clock duration of the import
+     *
+     * @return the elapsed time in milliseconds
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Set the wall-clock duration of the import
+     *
+     * @param elapsedMillis the elapsed time in milliseconds
+     */
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Record that the import stopped at a record that could not be parsed
+     *
+     * @param record zero-based number of the malformed record within the whole input
+     * @param parseError what was wrong with it
+     */
+    public void setParseError(long record, String parseError) {
+        this.parseErrorRecord = record;
+        this.parseError = parseError;
+    }
+
+    /**
+     * Get the record the import stopped at
+     *
+     * @return zero-based number of the malformed record, or null if the whole input was parsed
+     */
+    public Long getParseErrorRecord() {
+        return parseErrorRecord;
+    }
+
+    /**
+     * Get why the import stopped early
+     *
+     * @return the parse error with its line and column, or null if the whole input was parsed
+     */
+    public String getParseError() {
+        return parseError;
+    }
+
+    /**
+     * Get the measured import throughput
+     *
+     * @return records processed per second
+     */
+    public double getDocsPerSecond() {
+        return elapsedMillis > 0 ? getReceived() * 1000.0 / elapsedMillis : getReceived();
+    }
+
+    /**
+     * Outcome of a single unordered bulk write.
+     */
+    public static class BatchResult {
+
+        private final int batch;
+        private final int inserted;
+        private final int failed;
+        private final int duplicates;
+        private final List<String> errors;
+
+        /**
+         * Fully parameterized constructor
+         *
+         * @param batch      zero-based batch number
+         * @param inserted   number of customers inserted
+         * @param failed     number of customers rejected, duplicates included
+         * @param duplicates number of customers rejected for a duplicate email
+         * @param errors     error messages for rejected customers other than duplicates
+         */
+        public BatchResult(int batch, int inserted, int failed, int duplicates, List<String> errors) {
+            this.batch = batch;
+            this.inserted = inserted;
+            this.failed = failed;
+            this.duplicates = duplicates;
+            this.errors = errors;
+        }
+
+        /**
+         * Get the zero-based batch number
+         *
+         * @return the batch number
+         */
+        public int getBatch() {
+            return batch;
+        }
+
+        /**
+         * Get the number of customers inserted
+         *
+         * @return the inserted count
+         */
+        public int getInserted() {
+            return inserted;
+        }
+
+        /**
+         * Get the number of customers rejected
+         *
+         * @return the failed count, duplicates included
+         */
+        public int getFailed() {
+            return failed;
+        }
+
+        /**
+         * Get the number of customers rejected for a duplicate email
+         *
+         * @return the duplicate count
+         */
+        public int getDuplicates() {
+            return duplicates;
+        }
+
+        /**
+         * Get error messages for rejected customers other than duplicates
+         *
+         * @return the error messages
+         */
+        public List<String> getErrors() {
+            return errors;
+        }
+    }
+}
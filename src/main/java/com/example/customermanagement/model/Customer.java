@@ -1,11 +1,14 @@
 package com.example.customermanagement.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.bson.types.ObjectId;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.util.List;
+
 /**
  * Customer entity class that maps to the MongoDB collection.
  * Contains customer information such as name, email, phone, and address.
@@ -20,6 +23,17 @@ public class Customer {
     private String phone;
     private String address;
 
+    // Optimistic-concurrency version, exposed to clients as the ETag rather than in the JSON body
+    @Version
+    @JsonIgnore
+    private Long version;
+
+    // Derived search keys, maintained from name; see NameTokenizer
+    @JsonIgnore
+    private String nameLower;
+    @JsonIgnore
+    private List<String> nameGrams;
+
     /**
      * Default constructor
      */
@@ -35,7 +49,7 @@ public class Customer {
      * @param address customer address
      */
     public Customer(String name, String email, String phone, String address) {
-        this.name = name;
+        setName(name);
         this.email = email;
         this.phone = phone;
         this.address = address;
@@ -52,7 +66,7 @@ public class Customer {
      */
     public Customer(ObjectId id, String name, String email, String phone, String address) {
         this.id = id;
-        this.name = name;
+        setName(name);
         this.email = email;
         this.phone = phone;
         this.address = address;
@@ -108,12 +122,15 @@ public class Customer {
     }
 
     /**
-     * Set the customer name
+     * Set the customer name.
+     * Also refreshes the derived prefix and n-gram search keys.
      *
      * @param name the customer name to set
      */
     public void setName(String name) {
         this.name = name;
+        this.nameLower = NameTokenizer.normalize(name);
+        this.nameGrams = NameTokenizer.grams(name);
     }
 
     /**
@@ -170,6 +187,24 @@ public class Customer {
         this.address = address;
     }
 
+    /**
+     * Get the document version, incremented by every update
+     *
+     * @return the version, or null for a customer that has not been saved
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Set the document version
+     *
+     * @param version the version to set
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     /**
      * Returns a string representation of the Customer object
      *
@@ -183,6 +218,7 @@ public class Customer {
                 ", email='" + email + '\'' +
                 ", phone='" + phone + '\'' +
                 ", address='" + address + '\'' +
+                ", version=" + version +
                 '}';
     }
 }
@@ -0,0 +1,100 @@
+package com.example.customermanagement.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One change to the customers collection, as pushed to UI subscribers over Server-Sent Events.
+ * The event ID is the change stream's resume token, so a reconnecting client's Last-Event-ID
+ * tells the server exactly which events it has already seen.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CustomerChangeEvent {
+
+    /**
+     * A customer was created; {@link #getCustomer()} holds it
+     */
+    public static final String INSERT = "insert";
+
+    /**
+     * A customer was updated or replaced; {@link #getCustomer()} holds its current state
+     */
+    public static final String UPDATE = "update";
+
+    /**
+     * A customer was deleted; only {@link #getId()} is set
+     */
+    public static final String DELETE = "delete";
+
+    /**
+     * Incremental changes cannot be delivered (collection dropped, history lost); reload the list
+     */
+    public static final String RESET = "reset";
+
+    private final String eventId;
+    private final String type;
+    private final String id;
+    private final Customer customer;
+
+    /**
+     * Fully parameterized constructor
+     *
+     * @param eventId  encoded resume token of the change, or null for a synthetic event
+     * @param type     one of {@link #INSERT}, {@link #UPDATE}, {@link #DELETE} or {@link #RESET}
+     * @param id       ID of the changed customer, or null for a reset
+     * @param customer the customer after the change, or null for deletes, resets and updates of since-deleted customers
+     */
+    public CustomerChangeEvent(String eventId, String type, String id, Customer customer) {
+        this.eventId = eventId;
+        this.type = type;
+        this.id = id;
+        this.customer = customer;
+    }
+
+    /**
+     * Create a reset event
+     *
+     * @param eventId encoded resume token of the change that caused it, or null
+     * @return the event
+     */
+    public static CustomerChangeEvent reset(String eventId) {
+        return new CustomerChangeEvent(eventId, RESET, null, null);
+    }
+
+    /**
+     * Get the SSE event ID, sent as the id: field rather than in the JSON payload
+     *
+     * @return the encoded resume token, or null
+     */
+    @JsonIgnore
+    public String getEventId() {
+        return eventId;
+    }
+
+    /**
+     * Get the kind of change
+     *
+     * @return the event type
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Get the ID of the changed customer
+     *
+     * @return the customer ID as a string, or null for a reset
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Get the customer after the change
+     *
+     * @return the customer, or null
+     */
+    public Customer getCustomer() {
+        return customer;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.customermanagement.model;
+
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A sparse fieldset requested with ?fields=name,email.
+ * Turns into a MongoDB projection, so unrequested fields never leave mongod, and into
+ * a partial JSON object per customer. When every projected field is a key of the
+ * list-view index (_id, name, email), the query is hinted to that index and can be
+ * answered from the index alone, without fetching documents. The hint is passed in by
+ * the caller, since it must use the field names the documents are stored under.
+ */
+public class CustomerFieldSet {
+
+    /**
+     * Name of the compound index on { _id, name, email } that covers list-view projections.
+     */
+    public static final String LIST_VIEW_INDEX = "_id_1_name_1_email_1";
+
+    private static final List<String> FIELDS = Arrays.asList("id", "name", "email", "phone", "address");
+    private static final Set<String> LIST_VIEW_FIELDS = new LinkedHashSet<>(Arrays.asList("id", "name", "email"));
+
+    private final Set<String> fields;
+
+    /**
+     * Create a fieldset from already-validated field names
+     *
+     * @param fields the requested fields, in canonical order
+     */
+    private CustomerFieldSet(Set<String> fields) {
+        this.fields = Collections.unmodifiableSet(fields);
+    }
+
+    /**
+     * Parse a comma-separated fields parameter
+     *
+     * @param fields the parameter value, e.g. "name,email"; null or blank means every field
+     * @return the fieldset, or null if every field was requested
+     * @throws IllegalArgumentException if an unknown field is named
+     */
+    public static CustomerFieldSet parse(String fields) {
+        if (fields == null || fields.trim().isEmpty()) {
+            return null;
+        }
+        Set<String> requested = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!FIELDS.contains(name)) {
+                throw new IllegalArgumentException("Unknown customer field: " + name + " (expected one of " + FIELDS + ")");
+            }
+            requested.add(name);
+        }
+
+        // Keep JSON output in the usual field order whatever order was requested
+        Set<String> ordered = new LinkedHashSet<>();
+        for (String name : FIELDS) {
+            if (requested.contains(name)) {
+                ordered.add(name);
+            }
+        }
+        return new CustomerFieldSet(ordered);
+    }
+
+    /**
+     * Get the requested fields
+     *
+     * @return the field names, in canonical order
+     */
+    public Set<String> getFields() {
+        return fields;
+    }
+
+    /**
+     * Check whether the list-view index alone can answer a projection of these fields
+     *
+     * @return true if every requested field is a key of the list-view index
+     */
+    public boolean isCovered() {
+        return LIST_VIEW_FIELDS.containsAll(fields);
+    }
+
+    /**
+     * Add this fieldset's projection to a query, hinting the list-view index when it covers it.
+     * _id is always projected because keyset pagination needs it; it is in the index, so
+     * it never prevents a covered query. It is also included explicitly, since a projection
+     * with no included field would return whole documents.
+     *
+     * @param query a query filtering and sorting on _id only
+     * @param listViewHint the list-view index's key pattern in stored field names, as JSON
+     * @return the same query
+     */
+    public Query applyTo(Query query, String listViewHint) {
+        query.fields().include("_id");
+        for (String field : fields) {
+            if (!"id".equals(field)) {
+                query.fields().include(field);
+            }
+        }
+        if (isCovered()) {
+            query.withHint(listViewHint);
+        }
+        return query;
+    }
+
+    /**
+     * Build the partial JSON representation of a customer
+     *
+     * @param customer the customer, possibly loaded with this fieldset's projection
+     * @return the requested fields keyed by their JSON names
+     */
+    public Map<String, Object> project(Customer customer) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (String field : fields) {
+            switch (field) {
+                case "id":
+                    result.put("id", customer.getStringId());
+                    break;
+                case "name":
+                    result.put("name", customer.getName());
+                    break;
+                case "email":
+                    result.put("email", customer.getEmail());
+                    break;
+                case "phone":
+                    result.put("phone", customer.getPhone());
+                    break;
+                default:
+                    result.put("address", customer.getAddress());
+                    break;
+            }
+        }
+        return result;
+    }
+}
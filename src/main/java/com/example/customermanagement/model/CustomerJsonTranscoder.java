@@ -0,0 +1,186 @@
+package com.example.customermanagement.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.bson.ByteBuf;
+import org.bson.RawBsonDocument;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+/**
+ * Writes customer documents straight from their raw BSON bytes to JSON, in the same shape
+ * Jackson gives {@link Customer}: name, email, phone and address (null when absent) followed
+ * by id as a hex string. One pass over the bytes records where each value sits; string values
+ * are then copied to the generator as UTF-8 without decoding them into Strings, so no
+ * Customer, ObjectId or String is created per document.
+ * Only the flat layout written by this application is handled: {@link #read(RawBsonDocument)}
+ * returns false for anything else, and the caller maps that document the usual way.
+ * Instances hold per-document state and are not thread-safe; use one per response.
+ */
+public final class CustomerJsonTranscoder {
+
+    private static final byte TYPE_DOUBLE = 0x01;
+    private static final byte TYPE_STRING = 0x02;
+    private static final byte TYPE_OBJECT_ID = 0x07;
+    private static final byte TYPE_NULL = 0x0A;
+    private static final byte TYPE_INT32 = 0x10;
+    private static final byte TYPE_INT64 = 0x12;
+
+    // Output order matches Jackson's property order for Customer
+    private static final String[] FIELDS = {"name", "email", "phone", "address"};
+    private static final byte[] ID_KEY = "_id".getBytes(StandardCharsets.UTF_8);
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final byte[][] fieldKeys = new byte[FIELDS.length][];
+    private final byte[] versionKey;
+    private final int[] valueOffsets = new int[FIELDS.length];
+    private final int[] valueLengths = new int[FIELDS.length];
+    private final char[] hexId = new char[24];
+    private byte[] bytes;
+    private int idOffset;
+
+    /**
+     * Create a transcoder for documents stored under the property names
+     */
+    public CustomerJsonTranscoder() {
+        this(Function.identity());
+    }
+
+    /**
+     * Create a transcoder for documents stored under other field names, as with compact storage
+     *
+     * @param storedFieldNames maps a Customer property name to the document field it is stored in
+     */
+    public CustomerJsonTranscoder(Function<String, String> storedFieldNames) {
+        for (int i = 0; i < FIELDS.length; i++) {
+            fieldKeys[i] = storedFieldNames.apply(FIELDS[i]).getBytes(StandardCharsets.UTF_8);
+        }
+        versionKey = storedFieldNames.apply("version").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Locate the customer fields of a document
+     *
+     * @param document the raw customer document
+     * @return true if the document can be written by {@link #write(JsonGenerator)}; false if it
+     *         has a field of an unexpected type or no ObjectId _id
+     */
+    public boolean read(RawBsonDocument document) {
+        ByteBuf buffer = document.getByteBuffer();
+        bytes = buffer.array();
+        int position = buffer.position() + 4;
+        idOffset = -1;
+        for (int i = 0; i < FIELDS.length; i++) {
+            valueOffsets[i] = -1;
+        }
+
+        byte type;
+        while ((type = bytes[position++]) != 0) {
+            int keyStart = position;
+            while (bytes[position] != 0) {
+                position++;
+            }
+            int keyLength = position - keyStart;
+            position++;
+
+            if (type == TYPE_STRING) {
+                int length = readInt(position);
+                int field = fieldIndex(keyStart, keyLength);
+                if (field >= 0) {
+                    valueOffsets[field] = position + 4;
+                    // The stored length includes the terminating NUL
+                    valueLengths[field] = length - 1;
+                }
+                position += 4 + length;
+            } else if (type == TYPE_OBJECT_ID && keyMatches(keyStart, keyLength, ID_KEY)) {
+                idOffset = position;
+                position += 12;
+            } else if (type == TYPE_NULL && fieldIndex(keyStart, keyLength) >= 0) {
+                // Written as null, which is already the default
+                continue;
+            } else if (keyMatches(keyStart, keyLength, versionKey)
+                    && (type == TYPE_INT64 || type == TYPE_INT32 || type == TYPE_DOUBLE)) {
+                position += type == TYPE_INT32 ? 4 : 8;
+            } else {
+                return false;
+            }
+        }
+        return idOffset >= 0;
+    }
+
+    /**
+     * Write the document last passed to {@link #read(RawBsonDocument)} as one JSON object
+     *
+     * @param generator the generator to write to; must be a UTF-8 byte generator
+     * @throws IOException if writing fails
+     */
+    public void write(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < FIELDS.length; i++) {
+            generator.writeFieldName(FIELDS[i]);
+            if (valueOffsets[i] >= 0) {
+                generator.writeUTF8String(bytes, valueOffsets[i], valueLengths[i]);
+            } else {
+                generator.writeNull();
+            }
+        }
+        generator.writeFieldName("id");
+        for (int i = 0; i < 12; i++) {
+            int b = bytes[idOffset + i] & 0xFF;
+            hexId[2 * i] = HEX[b >>> 4];
+            hexId[2 * i + 1] = HEX[b & 0x0F];
+        }
+        generator.writeString(hexId, 0, hexId.length);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Find which customer field a key names
+     *
+     * @param keyStart offset of the key's first byte
+     * @param keyLength key length in bytes
+     * @return the index into {@link #FIELDS}, or -1 for another key
+     */
+    private int fieldIndex(int keyStart, int keyLength) {
+        for (int i = 0; i < fieldKeys.length; i++) {
+            if (keyMatches(keyStart, keyLength, fieldKeys[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compare a key in the document with a known key
+     *
+     * @param keyStart offset of the key's first byte
+     * @param keyLength key length in bytes
+     * @param key the known key as UTF-8
+     * @return true if they are equal
+     */
+    private boolean keyMatches(int keyStart, int keyLength, byte[] key) {
+        if (keyLength != key.length) {
+            return false;
+        }
+        for (int i = 0; i < keyLength; i++) {
+            if (bytes[keyStart + i] != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Read a little-endian BSON int32
+     *
+     * @param position offset of its first byte
+     * @return the value
+     */
+    private int readInt(int position) {
+        return (bytes[position] & 0xFF)
+                | (bytes[position + 1] & 0xFF) << 8
+                | (bytes[position + 2] & 0xFF) << 16
+                | (bytes[position + 3] & 0xFF) << 24;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.customermanagement.model;
+
+import org.bson.types.ObjectId;
+
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * One keyset-paginated page of customers.
+ * The cursor is an opaque token wrapping the last returned ObjectId, so the next
+ * page can be fetched with a range query on the indexed _id field instead of skip/offset.
+ */
+public class CustomerPage {
+
+    private final List<?> customers;
+    private final int limit;
+    private final String nextCursor;
+    private final String next;
+
+    /**
+     * Fully parameterized constructor
+     *
+     * @param customers  customers on this page, in ascending _id order; full customers or sparse fieldset maps
+     * @param limit      the page size that was applied
+     * @param nextCursor opaque cursor for the following page, or null on the last page
+     * @param next       link to the following page, or null on the last page
+     */
+    public CustomerPage(List<?> customers, int limit, String nextCursor, String next) {
+        this.customers = customers;
+        this.limit = limit;
+        this.nextCursor = nextCursor;
+        this.next = next;
+    }
+
+    /**
+     * Get the customers on this page
+     *
+     * @return the customers on this page
+     */
+    public List<?> getCustomers() {
+        return customers;
+    }
+
+    /**
+     * Get the page size that was applied
+     *
+     * @return the page size
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Get the opaque cursor for the following page
+     *
+     * @return the cursor, or null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Get the link to the following page
+     *
+     * @return the link, or null if this is the last page
+     */
+    public String getNext() {
+        return next;
+    }
+
+    /**
+     * Encode an ObjectId into an opaque, URL-safe cursor token
+     *
+     * @param id the last ObjectId of a page
+     * @return the cursor token
+     */
+    public static String encodeCursor(ObjectId id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toByteArray());
+    }
+
+    /**
+     * Decode a cursor token produced by {@link #encodeCursor(ObjectId)}
+     *
+     * @param cursor the cursor token
+     * @return the ObjectId the cursor points at
+     * @throws IllegalArgumentException if the token is not a valid cursor
+     */
+    public static ObjectId decodeCursor(String cursor) {
+        byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+        if (bytes.length != 12) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return new ObjectId(bytes);
+    }
+}
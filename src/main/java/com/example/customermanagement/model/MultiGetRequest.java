@@ -0,0 +1,44 @@
+package com.example.customermanagement.model;
+
+import java.util.List;
+
+/**
+ * Body of a multi-get: the customer IDs to resolve, in the order results should come back.
+ */
+public class MultiGetRequest {
+
+    private List<String> ids;
+
+    /**
+     * Default constructor required by Jackson
+     */
+    public MultiGetRequest() {
+    }
+
+    /**
+     * Fully parameterized constructor
+     *
+     * @param ids the customer IDs as strings
+     */
+    public MultiGetRequest(List<String> ids) {
+        this.ids = ids;
+    }
+
+    /**
+     * Get the customer IDs to resolve
+     *
+     * @return the IDs as strings, possibly invalid or repeated
+     */
+    public List<String> getIds() {
+        return ids;
+    }
+
+    /**
+     * Set the customer IDs to resolve
+     *
+     * @param ids the IDs as strings
+     */
+    public void setIds(List<String> ids) {
+        this.ids = ids;
+    }
+}
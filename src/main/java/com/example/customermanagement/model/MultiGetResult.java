@@ -0,0 +1,171 @@
+package com.example.customermanagement.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Outcome of a multi-get.
+ * Holds one entry per requested ID, in request order, each either carrying the customer
+ * or saying why there is none, plus totals per status.
+ */
+public class MultiGetResult {
+
+    public static final String FOUND = "found";
+    public static final String NOT_FOUND = "not_found";
+    public static final String INVALID_ID = "invalid_id";
+
+    private final List<Entry> results;
+    private final int found;
+    private final int notFound;
+    private final int invalid;
+
+    /**
+     * Fully parameterized constructor
+     *
+     * @param results one entry per requested ID, in request order
+     */
+    private MultiGetResult(List<Entry> results) {
+        this.results = results;
+        int foundCount = 0;
+        int notFoundCount = 0;
+        for (Entry entry : results) {
+            if (FOUND.equals(entry.getStatus())) {
+                foundCount++;
+            } else if (NOT_FOUND.equals(entry.getStatus())) {
+                notFoundCount++;
+            }
+        }
+        this.found = foundCount;
+        this.notFound = notFoundCount;
+        this.invalid = results.size() - foundCount - notFoundCount;
+    }
+
+    /**
+     * Parse the valid IDs of a request, dropping repeats, so they can be fetched with one query
+     *
+     * @param ids the requested IDs as strings
+     * @return the distinct valid IDs in request order
+     */
+    public static Set<ObjectId> validIds(List<String> ids) {
+        Set<ObjectId> valid = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (id != null && ObjectId.isValid(id)) {
+                valid.add(new ObjectId(id));
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Build the result for a request from the customers that were found
+     *
+     * @param ids the requested IDs as strings, in request order
+     * @param customers the customers found for the request's valid IDs, keyed by ID
+     * @return one entry per requested ID, repeats included
+     */
+    public static MultiGetResult of(List<String> ids, Map<ObjectId, Customer> customers) {
+        List<Entry> results = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            if (id == null || !ObjectId.isValid(id)) {
+                results.add(new Entry(id, INVALID_ID, null));
+            } else {
+                Customer customer = customers.get(new ObjectId(id));
+                results.add(new Entry(id, customer != null ? FOUND : NOT_FOUND, customer));
+            }
+        }
+        return new MultiGetResult(results);
+    }
+
+    /**
+     * Get the per-ID entries, in request order
+     *
+     * @return the entries
+     */
+    public List<Entry> getResults() {
+        return results;
+    }
+
+    /**
+     * Get the number of entries whose customer was found
+     *
+     * @return the found count
+     */
+    public int getFound() {
+        return found;
+    }
+
+    /**
+     * Get the number of valid IDs with no customer
+     *
+     * @return the not-found count
+     */
+    public int getNotFound() {
+        return notFound;
+    }
+
+    /**
+     * Get the number of IDs that are not valid ObjectIds
+     *
+     * @return the invalid count
+     */
+    public int getInvalid() {
+        return invalid;
+    }
+
+    /**
+     * Outcome for a single requested ID.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Entry {
+
+        private final String id;
+        private final String status;
+        private final Customer customer;
+
+        /**
+         * Fully parameterized constructor
+         *
+         * @param id       the ID as requested
+         * @param status   found, not_found or invalid_id
+         * @param customer the customer, or null unless found
+         */
+        public Entry(String id, String status, Customer customer) {
+            this.id = id;
+            this.status = status;
+            this.customer = customer;
+        }
+
+        /**
+         * Get the ID as requested
+         *
+         * @return the requested ID string
+         */
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * Get the outcome for this ID
+         *
+         * @return found, not_found or invalid_id
+         */
+        public String getStatus() {
+            return status;
+        }
+
+        /**
+         * Get the customer
+         *
+         * @return the customer, or null unless found
+         */
+        public Customer getCustomer() {
+            return customer;
+        }
+    }
+}
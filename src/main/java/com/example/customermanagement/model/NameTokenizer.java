@@ -0,0 +1,77 @@
+package com.example.customermanagement.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Derives the indexed search keys stored alongside a customer's name.
+ * A lower-cased copy backs anchored prefix matches, and a set of lower-cased
+ * trigrams backs substring matches through a multikey index.
+ */
+public final class NameTokenizer {
+
+    /**
+     * Length of the n-grams stored for substring search
+     */
+    public static final int GRAM_LENGTH = 3;
+
+    private NameTokenizer() {
+    }
+
+    /**
+     * Normalize a name or search term for case-insensitive comparison
+     *
+     * @param value the raw value
+     * @return the lower-cased, trimmed value, or null if the input is null
+     */
+    public static String normalize(String value) {
+        return value != null ? value.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * Split a value into its distinct lower-cased trigrams.
+     * Values shorter than a trigram yield themselves as the only token.
+     *
+     * @param value the raw value
+     * @return the distinct trigrams in order of first occurrence, empty if the input is null or blank
+     */
+    public static List<String> grams(String value) {
+        String normalized = normalize(value);
+        if (normalized == null || normalized.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (normalized.length() < GRAM_LENGTH) {
+            List<String> single = new ArrayList<>();
+            single.add(normalized);
+            return single;
+        }
+
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM_LENGTH));
+        }
+        return new ArrayList<>(grams);
+    }
+
+    /**
+     * Escape a literal so it can be embedded in a regular expression.
+     * Plain backslash escapes are used instead of \Q...\E so MongoDB can still
+     * derive tight index bounds from an anchored prefix.
+     *
+     * @param literal the literal text
+     * @return the escaped text
+     */
+    public static String escapeRegex(String literal) {
+        StringBuilder escaped = new StringBuilder(literal.length() + 8);
+        for (char c : literal.toCharArray()) {
+            if (!Character.isLetterOrDigit(c) && c != ' ') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
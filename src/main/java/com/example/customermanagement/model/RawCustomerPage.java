@@ -0,0 +1,35 @@
+package com.example.customermanagement.model;
+
+import org.bson.RawBsonDocument;
+
+import java.util.List;
+
+/**
+ * A {@link CustomerPage} whose customers are still raw BSON.
+ * Written to the response by transcoding each document with {@link CustomerJsonTranscoder},
+ * producing the same JSON as a page of mapped customers.
+ */
+public class RawCustomerPage extends CustomerPage {
+
+    /**
+     * Fully parameterized constructor
+     *
+     * @param customers  raw customer documents on this page, in ascending _id order
+     * @param limit      the page size that was applied
+     * @param nextCursor opaque cursor for the following page, or null on the last page
+     * @param next       link to the following page, or null on the last page
+     */
+    public RawCustomerPage(List<RawBsonDocument> customers, int limit, String nextCursor, String next) {
+        super(customers, limit, nextCursor, next);
+    }
+
+    /**
+     * Get the raw customer documents on this page
+     *
+     * @return the raw documents
+     */
+    @SuppressWarnings("unchecked")
+    public List<RawBsonDocument> getRawCustomers() {
+        return (List<RawBsonDocument>) getCustomers();
+    }
+}
@@ -2,6 +2,8 @@ package com.example.customermanagement.repository;
 
 import com.example.customermanagement.model.Customer;
 import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -26,7 +28,10 @@ public interface CustomerRepository extends MongoRepository<Customer, ObjectId>
      *
      * @param name the name to search for
      * @return list of customers with names containing the specified string
+     * @deprecated runs an unanchored case-insensitive $regex, which scans the whole collection;
+     * use {@link com.example.customermanagement.service.CustomerSearchService} instead
      */
+    @Deprecated
     java.util.List<Customer> findByNameContainingIgnoreCase(String name);
 
     /**
@@ -36,4 +41,23 @@ public interface CustomerRepository extends MongoRepository<Customer, ObjectId>
      * @return true if a customer with the email exists, false otherwise
      */
     boolean existsByEmail(String email);
+
+    /**
+     * Find the first slice of customers in ascending _id order.
+     * Only the page size of the pageable is used; no count query is issued.
+     *
+     * @param pageable the page size (page number should always be 0)
+     * @return a slice of customers ordered by _id
+     */
+    Slice<Customer> findAllByOrderByIdAsc(Pageable pageable);
+
+    /**
+     * Find the slice of customers whose _id is strictly greater than the given id.
+     * This is a range query on the _id index, so every page costs the same as the first.
+     *
+     * @param id       the last _id of the previous page
+     * @param pageable the page size (page number should always be 0)
+     * @return a slice of customers ordered by _id
+     */
+    Slice<Customer> findByIdGreaterThanOrderByIdAsc(ObjectId id, Pageable pageable);
 }
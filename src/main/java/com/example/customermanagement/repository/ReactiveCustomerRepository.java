@@ -0,0 +1,42 @@
+package com.example.customermanagement.repository;
+
+import com.example.customermanagement.model.Customer;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive repository interface for Customer entities, used by the 'reactive' profile.
+ * Mirrors the keyset pagination and lookup methods of {@link CustomerRepository}.
+ */
+@Repository
+public interface ReactiveCustomerRepository extends ReactiveMongoRepository<Customer, ObjectId> {
+
+    /**
+     * Check if a customer with the given email exists
+     *
+     * @param email the email to check
+     * @return emits true if a customer with the email exists, false otherwise
+     */
+    Mono<Boolean> existsByEmail(String email);
+
+    /**
+     * Find the first customers in ascending _id order
+     *
+     * @param pageable the page size (page number should always be 0)
+     * @return customers ordered by _id
+     */
+    Flux<Customer> findAllByOrderByIdAsc(Pageable pageable);
+
+    /**
+     * Find customers whose _id is strictly greater than the given id, using a range query on the _id index
+     *
+     * @param id       the last _id of the previous page
+     * @param pageable the page size (page number should always be 0)
+     * @return customers ordered by _id
+     */
+    Flux<Customer> findByIdGreaterThanOrderByIdAsc(ObjectId id, Pageable pageable);
+}
@@ -0,0 +1,248 @@
+package com.example.customermanagement.service;
+
+import com.example.customermanagement.model.BulkImportResult;
+import com.example.customermanagement.model.Customer;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Service that imports customers in bulk.
+ * Input is read incrementally from a JSON array or an NDJSON stream, chunked into
+ * batches and written with unordered bulk inserts, so one rejected record does not stop
+ * the rest of its batch from being written. Input that cannot be parsed ends the import.
+ */
+@Service
+public class CustomerBulkImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerBulkImportService.class);
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final EmailBloomFilter emailBloomFilter;
+    private final CustomerChangeCounter changeCounter;
+    private final ObjectReader customerReader;
+    private final int batchSize;
+
+    /**
+     * Constructor-based dependency injection
+     *
+     * @param mongoTemplate    template used for the bulk writes
+     * @param emailBloomFilter in-memory pre-check for duplicate emails
+     * @param changeCounter    counter behind the collection-level ETag
+     * @param objectMapper     the application's Jackson mapper, so imported JSON matches the REST API
+     * @param batchSize        number of customers written per bulk operation
+     */
+    @Autowired
+    public CustomerBulkImportService(MongoTemplate mongoTemplate,
+                                     EmailBloomFilter emailBloomFilter,
+                                     CustomerChangeCounter changeCounter,
+                                     ObjectMapper objectMapper,
+                                     @Value("${customers.bulk.batch-size:1000}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.emailBloomFilter = emailBloomFilter;
+        this.changeCounter = changeCounter;
+        this.customerReader = objectMapper.readerFor(Customer.class);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Import customers from a JSON array or a stream of newline-delimited JSON documents.
+     * Records are parsed one at a time and flushed every batch, so the whole input is never held in memory.
+     * A malformed record stops the import: the customers before it are still written, and the
+     * result names the record and the parse error next to the batches written so far.
+     *
+     * @param inputStream the request body
+     * @return per-batch and overall import counts, and the parse error if the input was malformed
+     * @throws IOException if the input cannot be read
+     */
+    public BulkImportResult importFrom(InputStream inputStream) throws IOException {
+        BulkImportResult result = new BulkImportResult();
+        long start = System.nanoTime();
+        List<Customer> batch = new ArrayList<>(batchSize);
+        int batchNumber = 0;
+        long read = 0;
+
+        try (MappingIterator<Customer> records = customerReader.readValues(inputStream)) {
+            while (records.hasNextValue()) {
+                Customer customer = records.nextValue();
+                read++;
+                // Ensure IDs are generated for new customers; bulk inserts do not initialize @Version
+                customer.setId(null);
+                customer.setVersion(0L);
+                batch.add(customer);
+
+                if (batch.size() == batchSize) {
+                    result.addBatch(writeBatch(batchNumber++, batch));
+                    batch.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // The original message leaves out the input excerpt, which may hold customer data
+            JsonLocation location = e.getLocation();
+            result.setParseError(read, location != null
+                    ? "line " + location.getLineNr() + ", column " + location.getColumnNr() + ": " + e.getOriginalMessage()
+                    : e.getOriginalMessage());
+            logger.warn("Bulk import stopped at malformed record {}: {}", read, result.getParseError());
+        }
+
+        if (!batch.isEmpty()) {
+            result.addBatch(writeBatch(batchNumber, batch));
+        }
+
+        result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        logger.info("Bulk import finished: {} inserted, {} failed ({} duplicates) in {} ms ({} docs/sec)",
+                result.getInserted(), result.getFailed(), result.getDuplicates(),
+                result.getElapsedMillis(), String.format("%.0f", result.getDocsPerSecond()));
+        return result;
+    }
+
+    /**
+     * Write one batch with an unordered bulk insert and collect its outcome.
+     * Records whose email is already stored are rejected up front: the Bloom filter
+     * picks out the few candidates, and a single $in query confirms them.
+     *
+     * Errors name the zero-based record number within the whole input.
+     *
+     * @param batchNumber zero-based batch number
+     * @param batch       customers to insert
+     * @return the outcome of the batch
+     */
+    private BulkImportResult.BatchResult writeBatch(int batchNumber, List<Customer> batch) {
+        Set<String> existingEmails = findExistingEmails(batch);
+        List<Customer> toInsert = batch;
+        // Position in the batch of each customer sent, or null while every customer is sent
+        List<Integer> positions = null;
+        if (!existingEmails.isEmpty()) {
+            toInsert = new ArrayList<>(batch.size());
+            positions = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                Customer customer = batch.get(i);
+                if (!existingEmails.contains(customer.getEmail())) {
+                    toInsert.add(customer);
+                    positions.add(i);
+                }
+            }
+        }
+        int preCheckDuplicates = batch.size() - toInsert.size();
+
+        if (toInsert.isEmpty()) {
+            return new BulkImportResult.BatchResult(batchNumber, 0, batch.size(), preCheckDuplicates,
+                    Collections.<String>emptyList());
+        }
+
+        try {
+            int inserted = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Customer.class)
+                    .insert(toInsert)
+                    .execute()
+                    .getInsertedCount();
+            rememberEmails(toInsert);
+            recordChange(inserted);
+            return new BulkImportResult.BatchResult(batchNumber, inserted, batch.size() - inserted, preCheckDuplicates,
+                    Collections.<String>emptyList());
+        } catch (DataAccessException e) {
+            if (!(e.getCause() instanceof MongoBulkWriteException)) {
+                throw e;
+            }
+
+            // Unordered writes continue past errors; report what was rejected and why
+            MongoBulkWriteException bulkException = (MongoBulkWriteException) e.getCause();
+            int inserted = bulkException.getWriteResult().getInsertedCount();
+            int duplicates = preCheckDuplicates;
+            List<String> errors = new ArrayList<>();
+            long firstRecord = (long) batchNumber * batchSize;
+
+            for (BulkWriteError error : bulkException.getWriteErrors()) {
+                if (error.getCode() == DUPLICATE_KEY_ERROR) {
+                    duplicates++;
+                } else {
+                    int position = positions != null ? positions.get(error.getIndex()) : error.getIndex();
+                    errors.add("record " + (firstRecord + position) + ": " + error.getMessage());
+                }
+            }
+            rememberEmails(toInsert);
+            recordChange(inserted);
+
+            logger.warn("Bulk import batch {} had {} rejected records ({} duplicates)",
+                    batchNumber, batch.size() - inserted, duplicates);
+            return new BulkImportResult.BatchResult(batchNumber, inserted, batch.size() - inserted, duplicates, errors);
+        }
+    }
+
+    /**
+     * Advance the collection-level ETag once a batch has written customers
+     *
+     * @param inserted customers the batch inserted
+     */
+    private void recordChange(int inserted) {
+        if (inserted > 0) {
+            changeCounter.increment();
+        }
+    }
+
+    /**
+     * Find which emails in a batch are already stored.
+     * Only emails the Bloom filter reports as possibly present are sent to MongoDB.
+     *
+     * @param batch customers about to be inserted
+     * @return the emails that already exist
+     */
+    private Set<String> findExistingEmails(List<Customer> batch) {
+        List<String> candidates = new ArrayList<>();
+        for (Customer customer : batch) {
+            if (customer.getEmail() != null && emailBloomFilter.mightContain(customer.getEmail())) {
+                candidates.add(customer.getEmail());
+            }
+        }
+        if (candidates.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        Query query = new Query(Criteria.where("email").in(candidates));
+        query.fields().include("email").exclude("_id");
+        Set<String> existing = new HashSet<>();
+        for (Customer customer : mongoTemplate.find(query, Customer.class)) {
+            existing.add(customer.getEmail());
+        }
+        for (String candidate : candidates) {
+            if (!existing.contains(candidate)) {
+                emailBloomFilter.recordFalsePositive();
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Add the emails of written customers to the Bloom filter.
+     * Rejected records are included too; that can only cause false positives, never missed duplicates.
+     *
+     * @param customers customers that were sent to MongoDB
+     */
+    private void rememberEmails(List<Customer> customers) {
+        for (Customer customer : customers) {
+            emailBloomFilter.put(customer.getEmail());
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.customermanagement.service;
+
+import com.example.customermanagement.model.Customer;
+import com.example.customermanagement.repository.CustomerRepository;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-through cache in front of {@link CustomerRepository#findById(Object)}.
+ * Entries are bounded by size (W-TinyLFU eviction) and by time since write.
+ * Missing customers are not cached, so a lookup for an unknown ID always reaches MongoDB.
+ * Misses are always loaded from the primary, even for requests whose reads are routed to
+ * secondaries, so the cache never holds a customer older than its last write.
+ * Callers that modify or delete customers must invalidate the affected entries.
+ */
+@Service
+public class CustomerCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerCache.class);
+
+    private final LoadingCache<ObjectId, Customer> cache;
+
+    /**
+     * Constructor-based dependency injection
+     *
+     * @param customerRepository repository used to load cache misses
+     * @param readPreferenceRouter routing whose scope cache misses are loaded outside of
+     * @param maxSize maximum number of cached customers
+     * @param ttlSeconds seconds after which a cached customer is reloaded
+     */
+    @Autowired
+    public CustomerCache(CustomerRepository customerRepository,
+                         ReadPreferenceRouter readPreferenceRouter,
+                         @Value("${customers.cache.max-size:10000}") long maxSize,
+                         @Value("${customers.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build(new CacheLoader<ObjectId, Customer>() {
+                    @Override
+                    public Customer load(ObjectId id) {
+                        return readPreferenceRouter.onPrimary(() -> customerRepository.findById(id).orElse(null));
+                    }
+
+                    @Override
+                    public Map<ObjectId, Customer> loadAll(Iterable<? extends ObjectId> ids) {
+                        // All misses of a multi-get in one $in query
+                        Map<ObjectId, Customer> loaded = new HashMap<>();
+                        Iterable<Customer> customers = readPreferenceRouter.onPrimary(
+                                () -> customerRepository.findAllById(toObjectIds(ids)));
+                        for (Customer customer : customers) {
+                            loaded.put(customer.getId(), customer);
+                        }
+                        return loaded;
+                    }
+                });
+        logger.info("Customer cache configured: maxSize={}, ttl={}s", maxSize, ttlSeconds);
+    }
+
+    /**
+     * Find a customer by ID, loading it from MongoDB on a cache miss
+     *
+     * @param id the customer ID
+     * @return the customer, or empty if it does not exist
+     */
+    public Optional<Customer> findById(ObjectId id) {
+        return Optional.ofNullable(cache.get(id));
+    }
+
+    /**
+     * Find several customers by ID, loading every cache miss with a single query
+     *
+     * @param ids the customer IDs
+     * @return the customers that exist, keyed by ID; missing IDs have no entry
+     */
+    public Map<ObjectId, Customer> findAllById(Iterable<ObjectId> ids) {
+        return cache.getAll(ids);
+    }
+
+    /**
+     * Get a customer only if it is already cached, without loading it
+     *
+     * @param id the customer ID
+     * @return the cached customer, or empty on a cache miss
+     */
+    public Optional<Customer> getIfPresent(ObjectId id) {
+        return Optional.ofNullable(cache.getIfPresent(id));
+    }
+
+    /**
+     * Remove a single customer from the cache
+     *
+     * @param id the customer ID
+     */
+    public void invalidate(ObjectId id) {
+        cache.invalidate(id);
+    }
+
+    /**
+     * Remove every customer from the cache
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Copy IDs into a list the repository accepts
+     *
+     * @param ids the IDs
+     * @return the IDs as a list
+     */
+    private static List<ObjectId> toObjectIds(Iterable<? extends ObjectId> ids) {
+        List<ObjectId> list = new ArrayList<>();
+        ids.forEach(list::add);
+        return list;
+    }
+
+    /**
+     * Get the cache counters
+     *
+     * @return hit, miss, eviction and size figures keyed by name
+     */
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        // Unknown IDs load as null, which Caffeine counts as a failed load
+        result.put("missingOrFailedLoads", stats.loadFailureCount());
+        result.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.customermanagement.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts changes to the customers collection. Writes made through this application instance
+ * are counted as they succeed; writes made by anyone else only through the change stream,
+ * while {@link CustomerChangeStreamService} is watching. So the collection-level ETag is only
+ * handed out while it is: on a standalone server, with change events disabled or while the
+ * stream is reopened, there is none and lists are never answered with 304.
+ * The ETag combines the count with an epoch chosen at startup, so a restart can never hand
+ * out an ETag that matches one issued before it. Every code path that writes customers must
+ * call {@link #increment()} after the write succeeds.
+ */
+@Service
+public class CustomerChangeCounter {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong changes = new AtomicLong();
+    private volatile boolean watched;
+
+    /**
+     * Record that the customers collection changed
+     */
+    public void increment() {
+        changes.incrementAndGet();
+    }
+
+    /**
+     * Record whether the change stream is watching the collection, so that changes made by
+     * other clients are counted too. Starting to watch counts as a change, since whatever
+     * happened while nobody watched may not be replayed.
+     *
+     * @param watched true once the change stream is open, false when it closes
+     */
+    public void setWatched(boolean watched) {
+        if (watched) {
+            changes.incrementAndGet();
+        }
+        this.watched = watched;
+    }
+
+    /**
+     * Get the number of changes recorded since startup
+     *
+     * @return the change count, which only ever grows
+     */
+    public long getChangeCount() {
+        return changes.get();
+    }
+
+    /**
+     * Get the strong ETag for the current state of the collection
+     *
+     * @return the quoted ETag, or null while changes by other clients would go unnoticed
+     */
+    public String getETag() {
+        return watched ? "\"" + epoch + "-" + changes.get() + "\"" : null;
+    }
+}
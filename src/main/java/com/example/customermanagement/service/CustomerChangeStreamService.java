@@ -0,0 +1,544 @@
+package com.example.customermanagement.service;
+
+import com.example.customermanagement.model.Customer;
+import com.example.customermanagement.model.CustomerChangeEvent;
+import com.mongodb.MongoException;
+import com.mongodb.MongoServerException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Watches the customers collection with a single MongoDB change stream and fans its
+ * events out to every subscriber, so live UI updates cost one cursor however many
+ * browsers are open. The stream resumes from its last resume token after errors.
+ * Recent events are kept in a bounded replay buffer keyed by their encoded resume token,
+ * so a reconnecting client sending Last-Event-ID receives what it missed, or a reset
+ * event if that is no longer possible. Changes also bump the collection ETag and evict
+ * the read cache, which keeps both correct for writes made by other instances; the ETag is
+ * only handed out while the stream is open.
+ * Each subscriber has a bounded queue drained by a sender thread of its own, so a slow or
+ * stuck client never holds up the stream, the other subscribers or new subscriptions;
+ * a subscriber whose queue overflows is dropped and reconnects with Last-Event-ID.
+ * Change streams need a replica set; on a standalone server the service disables itself.
+ */
+@Service
+public class CustomerChangeStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerChangeStreamService.class);
+
+    // $changeStream is only supported on replica sets
+    private static final int CHANGE_STREAM_NOT_SUPPORTED = 40573;
+    // The resume token's position has left the oplog (CappedPositionLost, ChangeStreamFatalError, ChangeStreamHistoryLost)
+    private static final List<Integer> HISTORY_LOST = Arrays.asList(136, 280, 286);
+    private static final long MAX_AWAIT_MILLIS = 1000;
+
+    /**
+     * Receives change events. Callbacks for one subscriber run one at a time, in order, on a
+     * sender thread; a callback that throws is unsubscribed.
+     */
+    public interface Subscriber {
+
+        /**
+         * Deliver one change
+         *
+         * @param event the change
+         */
+        void onEvent(CustomerChangeEvent event);
+
+        /**
+         * Called when no change arrived for the heartbeat interval, to keep idle connections open
+         */
+        void onHeartbeat();
+
+        /**
+         * Called once when the service stops and no further events will be delivered
+         */
+        void onClose();
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final CustomerChangeCounter changeCounter;
+    private final CustomerCache customerCache;
+    private final boolean enabled;
+    private final int replayBufferSize;
+    private final long heartbeatMillis;
+    private final long retryMillis;
+    private final int subscriberQueueSize;
+    private final ExecutorService sender;
+
+    private final Map<Subscriber, Delivery> subscribers = new ConcurrentHashMap<>();
+    private final ArrayDeque<CustomerChangeEvent> replay = new ArrayDeque<>();
+    private volatile BsonDocument resumeToken;
+    private volatile boolean watching;
+    private volatile boolean unsupported;
+    private volatile boolean stopping;
+    private volatile long lastSentMillis;
+
+    /**
+     * Constructor-based dependency injection
+     *
+     * @param mongoTemplate template whose collection is watched and whose converter maps full documents
+     * @param changeCounter collection change counter, bumped per change
+     * @param customerCache read cache, evicted per change
+     * @param enabled whether to open the change stream at all
+     * @param replayBufferSize number of recent events kept for reconnecting clients
+     * @param heartbeatSeconds idle time after which subscribers get a heartbeat
+     * @param retrySeconds delay before reopening the stream after an error
+     * @param subscriberQueueSize events queued for a subscriber before it is dropped as too slow
+     */
+    @Autowired
+    public CustomerChangeStreamService(MongoTemplate mongoTemplate,
+                                       CustomerChangeCounter changeCounter,
+                                       CustomerCache customerCache,
+                                       @Value("${customers.events.enabled:true}") boolean enabled,
+                                       @Value("${customers.events.replay-buffer-size:1000}") int replayBufferSize,
+                                       @Value("${customers.events.heartbeat-seconds:15}") long heartbeatSeconds,
+                                       @Value("${customers.events.retry-seconds:5}") long retrySeconds,
+                                       @Value("${customers.events.subscriber-queue-size:1000}") int subscriberQueueSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.changeCounter = changeCounter;
+        this.customerCache = customerCache;
+        this.enabled = enabled;
+        this.replayBufferSize = replayBufferSize;
+        this.heartbeatMillis = TimeUnit.SECONDS.toMillis(heartbeatSeconds);
+        this.retryMillis = TimeUnit.SECONDS.toMillis(retrySeconds);
+        this.subscriberQueueSize = subscriberQueueSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.sender = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "customer-change-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start watching in a background thread once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            logger.info("Customer change events disabled");
+            return;
+        }
+        Thread thread = new Thread(this::run, "customer-change-stream");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stop watching and close every subscriber
+     */
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+        closeSubscribers();
+        sender.shutdown();
+    }
+
+    /**
+     * Check whether change events can be delivered
+     *
+     * @return false if the service is disabled, stopped, or the server does not support change streams
+     */
+    public boolean isAvailable() {
+        return enabled && !unsupported && !stopping;
+    }
+
+    /**
+     * Register a subscriber, first replaying the events it missed.
+     * Replay and registration happen atomically with respect to new events, so none is lost or repeated.
+     * Events are only queued here; they are sent on the subscriber's sender thread.
+     *
+     * @param subscriber the subscriber
+     * @param lastEventId the Last-Event-ID of a reconnecting client, or null for a new one
+     */
+    public void subscribe(Subscriber subscriber, String lastEventId) {
+        Delivery delivery = new Delivery(subscriber);
+        synchronized (replay) {
+            if (lastEventId != null) {
+                for (CustomerChangeEvent event : eventsAfter(lastEventId)) {
+                    if (!delivery.offer(target -> target.onEvent(event))) {
+                        // Missed more than its queue holds: start over from a reset
+                        delivery.queue.clear();
+                        delivery.offer(target -> target.onEvent(CustomerChangeEvent.reset(null)));
+                        break;
+                    }
+                }
+            }
+            subscribers.put(subscriber, delivery);
+        }
+        logger.debug("Change event subscriber added ({} subscribed)", subscribers.size());
+    }
+
+    /**
+     * Remove a subscriber
+     *
+     * @param subscriber the subscriber
+     */
+    public void unsubscribe(Subscriber subscriber) {
+        if (subscribers.remove(subscriber) != null) {
+            logger.debug("Change event subscriber removed ({} subscribed)", subscribers.size());
+        }
+    }
+
+    /**
+     * Get the change stream status
+     *
+     * @return availability, whether the cursor is open, subscriber count and replay buffer fill keyed by name
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("available", isAvailable());
+        status.put("watching", watching);
+        status.put("subscribers", subscribers.size());
+        synchronized (replay) {
+            status.put("replayBuffered", replay.size());
+        }
+        status.put("replayBufferSize", replayBufferSize);
+        return status;
+    }
+
+    /**
+     * Find the events following a client's last seen event
+     *
+     * @param lastEventId the encoded resume token the client last received
+     * @return the newer buffered events, or a single reset event if the ID is no longer buffered
+     */
+    private List<CustomerChangeEvent> eventsAfter(String lastEventId) {
+        List<CustomerChangeEvent> missed = new ArrayList<>();
+        boolean found = false;
+        for (CustomerChangeEvent event : replay) {
+            if (found) {
+                missed.add(event);
+            } else if (lastEventId.equals(event.getEventId())) {
+                found = true;
+            }
+        }
+        if (!found) {
+            missed.add(CustomerChangeEvent.reset(null));
+        }
+        return missed;
+    }
+
+    /**
+     * Stream loop: keep a change stream open, reopening it from the last resume token after errors
+     */
+    private void run() {
+        while (!stopping) {
+            try {
+                watch();
+            } catch (MongoServerException e) {
+                // Opening the stream fails with a command error, a later getMore with a query error
+                if (e.getCode() == CHANGE_STREAM_NOT_SUPPORTED) {
+                    logger.warn("Customer change events unavailable: change streams need a replica set ({})",
+                            e.getMessage());
+                    unsupported = true;
+                    closeSubscribers();
+                    return;
+                }
+                if (resumeToken != null && HISTORY_LOST.contains(e.getCode())) {
+                    logger.warn("Cannot resume customer change stream, starting from now: {}", e.getMessage());
+                    resumeToken = null;
+                    publish(CustomerChangeEvent.reset(null));
+                    continue;
+                }
+                retryLater(e);
+            } catch (MongoException e) {
+                retryLater(e);
+            } finally {
+                watching = false;
+                changeCounter.setWatched(false);
+            }
+        }
+    }
+
+    /**
+     * Open the change stream and publish its events until stopped or invalidated
+     */
+    private void watch() {
+        String collectionName = mongoTemplate.getCollectionName(Customer.class);
+        ChangeStreamIterable<Document> stream = mongoTemplate.getCollection(collectionName)
+                .watch()
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .maxAwaitTime(MAX_AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+        if (resumeToken != null) {
+            stream.resumeAfter(resumeToken);
+        }
+
+        try (MongoCursor<ChangeStreamDocument<Document>> cursor = stream.iterator()) {
+            watching = true;
+            changeCounter.setWatched(true);
+            logger.info("Watching {} for changes{}", collectionName, resumeToken != null ? " (resumed)" : "");
+            lastSentMillis = System.currentTimeMillis();
+
+            while (!stopping) {
+                ChangeStreamDocument<Document> change = cursor.tryNext();
+                if (change == null) {
+                    heartbeatIfIdle();
+                    continue;
+                }
+
+                resumeToken = change.getResumeToken();
+                publish(toEvent(change));
+                if (change.getOperationType() == OperationType.INVALIDATE) {
+                    // An invalidated stream cannot be resumed; open a fresh one
+                    resumeToken = null;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Map a change stream document to a subscriber event, updating the ETag counter and read cache
+     *
+     * @param change the change
+     * @return the event
+     */
+    private CustomerChangeEvent toEvent(ChangeStreamDocument<Document> change) {
+        String eventId = encodeToken(change.getResumeToken());
+        OperationType operation = change.getOperationType();
+        ObjectId id = documentId(change.getDocumentKey());
+
+        if (id == null || (operation != OperationType.INSERT && operation != OperationType.UPDATE
+                && operation != OperationType.REPLACE && operation != OperationType.DELETE)) {
+            changeCounter.increment();
+            customerCache.invalidateAll();
+            return CustomerChangeEvent.reset(eventId);
+        }
+
+        changeCounter.increment();
+        customerCache.invalidate(id);
+        if (operation == OperationType.DELETE) {
+            return new CustomerChangeEvent(eventId, CustomerChangeEvent.DELETE, id.toHexString(), null);
+        }
+
+        // With updateLookup, an update of a customer deleted since has no full document
+        Customer customer = change.getFullDocument() != null
+                ? mongoTemplate.getConverter().read(Customer.class, change.getFullDocument())
+                : null;
+        String type = operation == OperationType.INSERT ? CustomerChangeEvent.INSERT : CustomerChangeEvent.UPDATE;
+        return new CustomerChangeEvent(eventId, type, id.toHexString(), customer);
+    }
+
+    /**
+     * Buffer an event for replay and queue it for every subscriber
+     *
+     * @param event the event
+     */
+    private void publish(CustomerChangeEvent event) {
+        synchronized (replay) {
+            if (event.getEventId() != null) {
+                replay.addLast(event);
+                if (replay.size() > replayBufferSize) {
+                    replay.removeFirst();
+                }
+            }
+            offerAll(subscriber -> subscriber.onEvent(event));
+        }
+        lastSentMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Queue subscribers a heartbeat if nothing was sent for the heartbeat interval
+     */
+    private void heartbeatIfIdle() {
+        if (System.currentTimeMillis() - lastSentMillis < heartbeatMillis) {
+            return;
+        }
+        offerAll(Subscriber::onHeartbeat);
+        lastSentMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Queue one callback for every subscriber, dropping those whose queue is full
+     *
+     * @param callback the callback
+     */
+    private void offerAll(Consumer<Subscriber> callback) {
+        for (Delivery delivery : subscribers.values()) {
+            if (!delivery.offer(callback)) {
+                logger.warn("Dropping change event subscriber: {} events queued", subscriberQueueSize);
+                drop(delivery);
+            }
+        }
+    }
+
+    /**
+     * Remove a subscriber and close it on a sender thread, since closing may wait for a blocked send
+     *
+     * @param delivery the subscriber's delivery
+     */
+    private void drop(Delivery delivery) {
+        if (subscribers.remove(delivery.subscriber, delivery)) {
+            delivery.queue.clear();
+            try {
+                sender.execute(() -> close(delivery.subscriber));
+            } catch (RejectedExecutionException e) {
+                close(delivery.subscriber);
+            }
+        }
+    }
+
+    /**
+     * Close and remove every subscriber
+     */
+    private void closeSubscribers() {
+        for (Subscriber subscriber : subscribers.keySet()) {
+            if (subscribers.remove(subscriber) != null) {
+                close(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Tell a subscriber no further events will be delivered
+     *
+     * @param subscriber the subscriber
+     */
+    private static void close(Subscriber subscriber) {
+        try {
+            subscriber.onClose();
+        } catch (RuntimeException e) {
+            logger.debug("Error closing change event subscriber: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Log a stream failure and wait before the stream is reopened
+     *
+     * @param e the failure
+     */
+    private void retryLater(MongoException e) {
+        if (stopping) {
+            return;
+        }
+        logger.warn("Customer change stream failed, retrying in {} ms: {}", retryMillis, e.getMessage());
+        try {
+            Thread.sleep(retryMillis);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            stopping = true;
+        }
+    }
+
+    /**
+     * Extract the customer ID from a change's document key
+     *
+     * @param documentKey the document key, or null for collection-level events
+     * @return the ObjectId, or null if there is none
+     */
+    private static ObjectId documentId(BsonDocument documentKey) {
+        BsonValue id = documentKey != null ? documentKey.get("_id") : null;
+        return id != null && id.isObjectId() ? id.asObjectId().getValue() : null;
+    }
+
+    /**
+     * Encode a resume token as an opaque, header-safe SSE event ID
+     *
+     * @param token the resume token
+     * @return the URL-safe Base64 of the token's JSON
+     */
+    private static String encodeToken(BsonDocument token) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(token.toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * One subscriber's queue of pending callbacks, drained in order by at most one sender thread at a time
+     */
+    private final class Delivery implements Runnable {
+
+        private final Subscriber subscriber;
+        private final BlockingQueue<Consumer<Subscriber>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Delivery(Subscriber subscriber) {
+            this.subscriber = subscriber;
+            this.queue = new ArrayBlockingQueue<>(subscriberQueueSize);
+        }
+
+        /**
+         * Queue a callback and make sure a sender thread is draining the queue
+         *
+         * @param callback the callback
+         * @return false if the queue is full
+         */
+        boolean offer(Consumer<Subscriber> callback) {
+            if (!queue.offer(callback)) {
+                return false;
+            }
+            schedule();
+            return true;
+        }
+
+        /**
+         * Start draining on a sender thread unless one already is
+         */
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down
+                    draining.set(false);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Consumer<Subscriber> callback;
+                while ((callback = queue.poll()) != null) {
+                    callback.accept(subscriber);
+                }
+            } catch (RuntimeException e) {
+                logger.debug("Dropping change event subscriber: {}", e.getMessage());
+                drop(this);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // A callback queued after the last poll but before draining was reset
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
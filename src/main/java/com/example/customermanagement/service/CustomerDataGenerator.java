@@ -0,0 +1,90 @@
+package com.example.customermanagement.service;
+
+import com.example.customermanagement.model.Customer;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Generates realistic-looking synthetic customers.
+ * Each customer is derived only from the seed and its index, so the same seed always
+ * yields the same data regardless of how many producers generate it or in what order.
+ * Emails embed the index, so they stay unique under the email_1 index.
+ */
+public class CustomerDataGenerator {
+
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+            "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+            "Christopher", "Lisa", "Daniel", "Nancy", "Matthew", "Betty", "Anthony", "Margaret", "Mark", "Sandra",
+            "Wei", "Aisha", "Mateo", "Sofia", "Hiroshi", "Priya", "Olga", "Kwame", "Lucia", "Ahmed"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+            "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark", "Ramirez", "Lewis", "Robinson",
+            "Nakamura", "Okafor", "Kowalski", "Rossi", "Novak", "Chen", "Patel", "Ivanova", "Mensah", "Haddad"
+    };
+
+    private static final String[] STREETS = {
+            "Main St", "Oak Ave", "Pine Rd", "Maple Dr", "Cedar Ln", "Elm St", "Washington Blvd", "Lake View Rd",
+            "Hillside Ave", "Park Pl", "Sunset Blvd", "River Rd", "Church St", "Mill Ln", "Highland Ave", "Forest Dr"
+    };
+
+    private static final String[] CITIES = {
+            "Springfield, IL", "Riverside, CA", "Franklin, TN", "Greenville, SC", "Madison, WI", "Georgetown, TX",
+            "Salem, OR", "Clinton, IA", "Fairview, NJ", "Arlington, VA", "Ashland, KY", "Burlington, VT",
+            "Dover, DE", "Milton, MA", "Newport, RI", "Oxford, MS"
+    };
+
+    private static final String[] DOMAINS = {
+            "example.com", "example.org", "example.net", "mail.example.com", "corp.example.com"
+    };
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long seed;
+
+    /**
+     * Create a generator for the given seed
+     *
+     * @param seed the seed the generated data is derived from
+     */
+    public CustomerDataGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Generate the customer at a given position in the data set
+     *
+     * @param index zero-based position of the customer
+     * @return a new, unsaved customer
+     */
+    public Customer generate(long index) {
+        SplittableRandom random = new SplittableRandom(seed + index * GOLDEN_GAMMA);
+        String firstName = pick(random, FIRST_NAMES);
+        String lastName = pick(random, LAST_NAMES);
+
+        String email = firstName.toLowerCase(Locale.ROOT) + "." + lastName.toLowerCase(Locale.ROOT)
+                + "." + index + "@" + pick(random, DOMAINS);
+        String phone = String.format("555-%03d-%04d", random.nextInt(1000), random.nextInt(10000));
+        String address = (1 + random.nextInt(9999)) + " " + pick(random, STREETS) + ", " + pick(random, CITIES) + ", USA";
+
+        Customer customer = new Customer(firstName + " " + lastName, email, phone, address);
+        // Written with bulk inserts, which do not initialize @Version
+        customer.setVersion(0L);
+        return customer;
+    }
+
+    /**
+     * Pick one element uniformly at random
+     *
+     * @param random the random source
+     * @param values the candidates
+     * @return the chosen value
+     */
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.customermanagement.service;
+
+import com.example.customermanagement.model.Customer;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.mongodb.ReadPreference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Service that streams the whole customers collection as newline-delimited JSON.
+ * Documents are read from a server-side cursor and written one at a time, so heap
+ * use stays flat regardless of collection size. A slow client blocks the output
+ * stream, which in turn stops the cursor from fetching further batches.
+ * Exports are prepared on the request thread, so they keep its routed read preference
+ * when written from an async thread.
+ */
+@Service
+public class CustomerExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerExportService.class);
+    private static final byte NEWLINE = '\n';
+
+    private final MongoTemplate mongoTemplate;
+    private final ReadPreferenceRouter readPreferenceRouter;
+    private final ObjectWriter customerWriter;
+    private final int batchSize;
+
+    /**
+     * Constructor-based dependency injection
+     *
+     * @param mongoTemplate        template used to open the export cursor
+     * @param readPreferenceRouter routing of reads to replica set secondaries
+     * @param objectMapper         the application's Jackson mapper, so exported JSON matches the REST API
+     * @param batchSize            number of documents fetched per cursor batch
+     */
+    @Autowired
+    public CustomerExportService(MongoTemplate mongoTemplate,
+                                 ReadPreferenceRouter readPreferenceRouter,
+                                 ObjectMapper objectMapper,
+                                 @Value("${customers.export.batch-size:1000}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.readPreferenceRouter = readPreferenceRouter;
+        // Keep Jackson from closing the response stream after each document
+        this.customerWriter = objectMapper.writerFor(Customer.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Prepare an export with the current thread's routed read preference, to be written
+     * later, possibly on another thread
+     *
+     * @return the export
+     */
+    public Export prepareExport() {
+        ReadPreference readPreference = readPreferenceRouter.current();
+        return outputStream -> {
+            readPreferenceRouter.setCurrent(readPreference);
+            try {
+                return exportTo(outputStream);
+            } finally {
+                readPreferenceRouter.setCurrent(null);
+            }
+        };
+    }
+
+    /**
+     * Write every customer to the given stream as one JSON document per line.
+     * The stream is flushed after each cursor batch so the client receives data progressively.
+     *
+     * @param outputStream the stream to write to; it is not closed by this method
+     * @return the number of customers written
+     * @throws IOException if writing to the stream fails, e.g. because the client disconnected
+     */
+    public long exportTo(OutputStream outputStream) throws IOException {
+        Query query = new Query()
+                .with(Sort.by(Sort.Direction.ASC, "id"))
+                .cursorBatchSize(batchSize)
+                .noCursorTimeout();
+
+        long count = 0;
+        try (CloseableIterator<Customer> cursor = mongoTemplate.stream(query, Customer.class)) {
+            while (cursor.hasNext()) {
+                customerWriter.writeValue(outputStream, cursor.next());
+                outputStream.write(NEWLINE);
+
+                if (++count % batchSize == 0) {
+                    outputStream.flush();
+                }
+            }
+        }
+        outputStream.flush();
+
+        logger.info("Exported {} customers", count);
+        return count;
+    }
+
+    /**
+     * An export prepared by {@link #prepareExport()}.
+     */
+    @FunctionalInterface
+    public interface Export {
+
+        /**
+         * Write every customer to the given stream as one JSON document per line
+         *
+         * @param outputStream the stream to write to; it is not closed by this method
+         * @return the number of customers written
+         * @throws IOException if writing to the stream fails
+         */
+        long writeTo(OutputStream outputStream) throws IOException;
+    }
+}
@@ -0,0 +1,327 @@
+package com.example.customermanagement.service;
+
+import com.example.customermanagement.model.Customer;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Inserts single customers, optionally coalescing concurrent inserts into group commits.
+ * With customers.insert-coalescing.enabled, callers enqueue their customer and wait while
+ * a flusher thread collects up to max-batch-size customers, or whatever arrives within
+ * window-ms of the first, and writes them with one unordered bulk insert. One insert
+ * command and one journal wait are then shared by the whole batch. Each caller gets back
+ * its own customer, or its own error: a duplicate email fails only that caller.
+ * IDs and versions are assigned before queueing, since bulk inserts do not set them on the entity.
+ * While a flush is in flight the next batch accumulates, so batches grow with load.
+ * A blocking caller waits at most timeout-ms for its batch, so a stalled or dead flusher
+ * fails requests instead of hanging them.
+ */
+@Service
+public class CustomerInsertCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerInsertCoalescer.class);
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final long timeoutMillis;
+    private final DistributionSummary batchSizes;
+
+    private final BlockingQueue<PendingInsert> queue = new LinkedBlockingQueue<>();
+    private volatile boolean stopping;
+    private Thread flusher;
+
+    /**
+     * A queued customer and the future completed when its batch is written
+     */
+    private static final class PendingInsert {
+        private final Customer customer;
+        private final CompletableFuture<Customer> result = new CompletableFuture<>();
+
+        private PendingInsert(Customer customer) {
+            this.customer = customer;
+        }
+    }
+
+    /**
+     * Constructor-based dependency injection
+     *
+     * @param mongoTemplate template used for the inserts
+     * @param meterRegistry registry for the batch size distribution
+     * @param enabled whether to coalesce concurrent inserts at all
+     * @param windowMillis how long a batch stays open after its first customer arrives
+     * @param maxBatchSize customers after which a batch is flushed without waiting for the window
+     * @param timeoutMillis how long a blocking caller waits for its coalesced insert
+     */
+    @Autowired
+    public CustomerInsertCoalescer(MongoTemplate mongoTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${customers.insert-coalescing.enabled:false}") boolean enabled,
+                                   @Value("${customers.insert-coalescing.window-ms:2}") long windowMillis,
+                                   @Value("${customers.insert-coalescing.max-batch-size:256}") int maxBatchSize,
+                                   @Value("${customers.insert-coalescing.timeout-ms:10000}") long timeoutMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxBatchSize = maxBatchSize;
+        this.timeoutMillis = timeoutMillis;
+        this.batchSizes = DistributionSummary.builder("customers.insert.batch.size")
+                .description("Customers written per coalesced insert")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start the flusher thread when coalescing is enabled
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        logger.info("Coalescing customer inserts: window {} ms, up to {} per batch",
+                TimeUnit.NANOSECONDS.toMillis(windowNanos), maxBatchSize);
+        flusher = new Thread(this::run, "customer-insert-coalescer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Stop accepting coalesced inserts, flush what is queued and stop the flusher thread
+     *
+     * @throws InterruptedException if interrupted while waiting for the final flush
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        stopping = true;
+        if (flusher != null) {
+            // Not interrupted, so an in-flight insert completes normally
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        List<PendingInsert> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        if (!abandoned.isEmpty()) {
+            failAll(abandoned, new IllegalStateException("Customer inserts are shutting down"));
+        }
+    }
+
+    /**
+     * Insert a new customer, as part of a group commit when coalescing is enabled
+     *
+     * @param customer the customer to insert; its ID is replaced with a new one
+     * @return the inserted customer
+     * @throws DuplicateKeyException if the email is already taken
+     * @throws QueryTimeoutException if a coalesced insert did not complete within the timeout;
+     *         it was not written if it was still queued, otherwise its outcome is unknown
+     * @throws DataAccessException if the insert fails otherwise
+     */
+    public Customer insert(Customer customer) {
+        if (!enabled || stopping) {
+            customer.setId(null);
+            return mongoTemplate.insert(customer);
+        }
+        PendingInsert pending = enqueue(customer);
+        try {
+            return pending.result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            boolean inFlight = !queue.remove(pending);
+            logger.error("Coalesced customer insert timed out after {} ms ({})", timeoutMillis,
+                    inFlight ? "in flight" : "not written");
+            QueryTimeoutException timeout = new QueryTimeoutException(
+                    "Coalesced customer insert did not complete within " + timeoutMillis + " ms");
+            pending.result.completeExceptionally(timeout);
+            throw timeout;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queue.remove(pending);
+            throw new QueryTimeoutException("Interrupted while waiting for a coalesced customer insert", e);
+        }
+    }
+
+    /**
+     * Queue a new customer for the next group commit, for callers that must not block
+     *
+     * @param customer the customer to insert; its ID is replaced with a new one
+     * @return a future completed with the inserted customer, or with its insert error
+     */
+    public CompletableFuture<Customer> insertAsync(Customer customer) {
+        if (!enabled || stopping) {
+            return CompletableFuture.supplyAsync(() -> insert(customer), Runnable::run);
+        }
+        return enqueue(customer).result;
+    }
+
+    /**
+     * Assign the customer's ID and version and queue it for the next group commit
+     *
+     * @param customer the customer to insert
+     * @return the queued insert; already failed if inserts stopped meanwhile
+     */
+    private PendingInsert enqueue(Customer customer) {
+        customer.setId(new ObjectId());
+        customer.setVersion(0L);
+        PendingInsert pending = new PendingInsert(customer);
+        queue.add(pending);
+        // stop() may have drained the queue between the caller's check and the add
+        if (stopping && queue.remove(pending)) {
+            pending.result.completeExceptionally(new IllegalStateException("Customer inserts are shutting down"));
+        }
+        return pending;
+    }
+
+    /**
+     * Check whether inserts are coalesced
+     *
+     * @return true if coalescing is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Flusher loop: collect a batch, write it, repeat; on stop, flush whatever is still queued
+     */
+    private void run() {
+        List<PendingInsert> batch = new ArrayList<>(maxBatchSize);
+        while (!stopping) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                // Flush what was collected and the rest of the queue, then exit
+                stopping = true;
+            }
+            flush(batch);
+        }
+        while (queue.drainTo(batch, maxBatchSize) > 0) {
+            flush(batch);
+        }
+    }
+
+    /**
+     * Wait for a first customer, then gather more until the batch is full or its window has passed
+     *
+     * @param batch empty list to fill; left empty if nothing arrived, so the loop can notice a stop
+     * @throws InterruptedException if the flusher thread is interrupted while waiting
+     */
+    private void collect(List<PendingInsert> batch) throws InterruptedException {
+        PendingInsert first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + windowNanos;
+        while (batch.size() < maxBatchSize) {
+            // Take everything already queued before waiting for more
+            if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            PendingInsert next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * Write a batch with one unordered bulk insert and complete each caller's future with its outcome
+     *
+     * @param batch the batch, emptied afterwards
+     */
+    private void flush(List<PendingInsert> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Customer> customers = new ArrayList<>(batch.size());
+        for (PendingInsert pending : batch) {
+            customers.add(pending.customer);
+        }
+
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Customer.class).insert(customers).execute();
+            batchSizes.record(batch.size());
+            for (PendingInsert pending : batch) {
+                pending.result.complete(pending.customer);
+            }
+        } catch (DataAccessException e) {
+            if (!(e.getCause() instanceof MongoBulkWriteException)
+                    || ((MongoBulkWriteException) e.getCause()).getWriteConcernError() != null) {
+                failAll(batch, e);
+            } else {
+                // Unordered writes continue past errors; only the rejected callers fail
+                batchSizes.record(batch.size());
+                completeWithWriteErrors(batch, (MongoBulkWriteException) e.getCause());
+            }
+        } catch (RuntimeException e) {
+            failAll(batch, e);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    /**
+     * Complete a partly failed batch: each write error fails its own caller, everyone else succeeds
+     *
+     * @param batch the batch
+     * @param e the bulk write failure, listing the rejected indexes
+     */
+    private void completeWithWriteErrors(List<PendingInsert> batch, MongoBulkWriteException e) {
+        for (BulkWriteError error : e.getWriteErrors()) {
+            PendingInsert pending = batch.get(error.getIndex());
+            pending.result.completeExceptionally(error.getCode() == DUPLICATE_KEY_ERROR
+                    ? new DuplicateKeyException(error.getMessage())
+                    : new DataIntegrityViolationException(error.getMessage()));
+        }
+        for (PendingInsert pending : batch) {
+            pending.result.complete(pending.customer);
+        }
+        logger.debug("Coalesced insert of {} customers had {} rejected", batch.size(), e.getWriteErrors().size());
+    }
+
+    /**
+     * Fail every caller of a batch that could not be written
+     *
+     * @param batch the batch
+     * @param e the failure
+     */
+    private static void failAll(List<PendingInsert> batch, RuntimeException e) {
+        logger.warn("Coalesced insert of {} customers failed: {}", batch.size(), e.getMessage());
+        for (PendingInsert pending : batch) {
+            pending.result.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.customermanagement.service;
+
+import com.example.customermanagement.model.Customer;
+import com.example.customermanagement.model.CustomerFieldSet;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service for customer reads restricted to a sparse fieldset.
+ * The fieldset becomes the query's projection, so only the requested fields are sent
+ * by mongod, and list-view fieldsets are answered from the covering index. The query
+ * builders are shared with the reactive stack.
+ * The raw reads skip the mapping layer and return the documents as {@link RawBsonDocument}s,
+ * the driver's undecoded bytes, for {@link com.example.customermanagement.model.CustomerJsonTranscoder}.
+ */
+@Service
+public class CustomerReadService {
+
+    private final MongoTemplate mongoTemplate;
+    private final CustomerChangeCounter changeCounter;
+    private final ReadPreferenceRouter readPreferenceRouter;
+    private final Bson rawProjection;
+    private final String listViewHint;
+
+    /**
+     * Constructor-based dependency injection
+     *
+     * @param mongoTemplate template used for the projected queries
+     * @param changeCounter counter behind the collection-level ETag
+     * @param readPreferenceRouter routing of reads to replica set secondaries
+     */
+    @Autowired
+    public CustomerReadService(MongoTemplate mongoTemplate,
+                               CustomerChangeCounter changeCounter,
+                               ReadPreferenceRouter readPreferenceRouter) {
+        this.mongoTemplate = mongoTemplate;
+        this.changeCounter = changeCounter;
+        this.readPreferenceRouter = readPreferenceRouter;
+        // Everything the JSON shape needs; leaves out the derived search keys, which are most of the document
+        this.rawProjection = Projections.include(storedFieldName("name"), storedFieldName("email"),
+                storedFieldName("phone"), storedFieldName("address"), storedFieldName("version"));
+        // Hints are not run through the field mapping, so spell out the stored names
+        this.listViewHint = new Document("_id", 1)
+                .append(storedFieldName("name"), 1)
+                .append(storedFieldName("email"), 1)
+                .toJson();
+    }
+
+    /**
+     * Get the collection-level ETag. Read it before querying, so a concurrent write can
+     * only make the ETag older than the data.
+     *
+     * @return the ETag of the collection's current state, or null while the change stream
+     *         is not watching and writes by other clients would go unnoticed
+     */
+    public String getETag() {
+        return changeCounter.getETag();
+    }
+
+    /**
+     * Get the ETag a page read on the current thread may be sent with. A page read from a
+     * secondary may predate writes the collection-level ETag already counts, so it gets none.
+     *
+     * @param etag the collection-level ETag read before the query, or null if there is none
+     * @return the ETag, or null inside a routed scope or without one
+     */
+    public String pageETag(String etag) {
+        return readPreferenceRouter.current() == null ? etag : null;
+    }
+
+    /**
+     * Get the name a Customer property is stored under, which differs from the property
+     * name with compact storage. Needed wherever documents bypass the mapping layer.
+     *
+     * @param property the Customer property name
+     * @return the document field name
+     */
+    public String storedFieldName(String property) {
+        return mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(Customer.class)
+                .getRequiredPersistentProperty(property)
+                .getFieldName();
+    }
+
+    /**
+     * Build the keyset page query: customers after the cursor, in ascending _id order
+     *
+     * @param after the last ObjectId of the previous page, or null for the first page
+     * @param limit maximum number of customers to return
+     * @return the query
+     */
+    public static Query pageQuery(ObjectId after, int limit) {
+        Query query = after != null ? new Query(Criteria.where("id").gt(after)) : new Query();
+        return query.with(Sort.by(Sort.Direction.ASC, "id")).limit(limit);
+    }
+
+    /**
+     * Build the single-customer query
+     *
+     * @param id the customer ID
+     * @return the query
+     */
+    public static Query byIdQuery(ObjectId id) {
+        return new Query(Criteria.where("id").is(id));
+    }
+
+    /**
+     * Build the keyset page query for a fieldset
+     *
+     * @param after the last ObjectId of the previous page, or null for the first page
+     * @param limit maximum number of customers to return
+     * @param fields the fields to load
+     * @return the query
+     */
+    public Query pageQuery(ObjectId after, int limit, CustomerFieldSet fields) {
+        return fields.applyTo(pageQuery(after, limit), listViewHint);
+    }
+
+    /**
+     * Build the single-customer query for a fieldset.
+     * The version is always loaded as well, so sparse reads still carry the customer's ETag.
+     *
+     * @param id the customer ID
+     * @param fields the fields to load
+     * @return the query
+     */
+    public Query byIdQuery(ObjectId id, CustomerFieldSet fields) {
+        Query query = fields.applyTo(byIdQuery(id), listViewHint);
+        query.fields().include("version");
+        return query;
+    }
+
+    /**
+     * Find one page of customers with only the requested fields loaded
+     *
+     * @param after the last ObjectId of the previous page, or null for the first page
+     * @param limit maximum number of customers to return
+     * @param fields the fields to load
+     * @return the customers, with unrequested fields left null
+     */
+    public List<Customer> findPage(ObjectId after, int limit, CustomerFieldSet fields) {
+        return mongoTemplate.find(pageQuery(after, limit, fields), Customer.class);
+    }
+
+    /**
+     * Find a customer by ID with only the requested fields loaded
+     *
+     * @param id the customer ID
+     * @param fields the fields to load
+     * @return the customer, with unrequested fields left null, or empty if it does not exist
+     */
+    public Optional<Customer> findById(ObjectId id, CustomerFieldSet fields) {
+        return Optional.ofNullable(mongoTemplate.findOne(byIdQuery(id, fields), Customer.class));
+    }
+
+    /**
+     * Find one page of customers as raw BSON, without mapping them to {@link Customer}
+     *
+     * @param after the last ObjectId of the previous page, or null for the first page
+     * @param limit maximum number of customers to return
+     * @return the raw documents in ascending _id order
+     */
+    public List<RawBsonDocument> findRawPage(ObjectId after, int limit) {
+        Bson filter = after != null ? Filters.gt("_id", after) : new Document();
+        return mongoTemplate.execute(Customer.class, collection -> collection.withDocumentClass(RawBsonDocument.class)
+                .find(filter)
+                .projection(rawProjection)
+                .sort(Sorts.ascending("_id"))
+                .limit(limit)
+                .into(new ArrayList<>(limit)));
+    }
+
+    /**
+     * Find a customer by ID as raw BSON, without mapping it to {@link Customer}
+     *
+     * @param id the customer ID
+     * @return the raw document, or null if it does not exist
+     */
+    public RawBsonDocument findRawById(ObjectId id) {
+        return mongoTemplate.execute(Customer.class, collection -> collection.withDocumentClass(RawBsonDocument.class)
+                .find(Filters.eq("_id", id))
+                .projection(rawProjection)
+                .first());
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.customermanagement.service;
+
+import com.example.customermanagement.model.Customer;
+import com.example.customermanagement.model.NameTokenizer;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service for index-backed customer name search.
+ * Prefix matches use an anchored regex on the lower-cased name, which MongoDB turns
+ * into tight bounds on the nameLower index. Substring matches look up every trigram
+ * of the term in the multikey nameGrams index and confirm the candidates with an
+ * unanchored regex, which is only evaluated against the documents the index returned.
+ * Substring terms shorter than a trigram have no trigram to look up; they are matched with
+ * the unanchored regex alone, which scans the whole nameLower index but no documents.
+ */
+@Service
+public class CustomerSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerSearchService.class);
+
+    /**
+     * Supported match modes
+     */
+    public enum Mode {
+        PREFIX, CONTAINS
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final QueryMapper queryMapper;
+
+    /**
+     * Constructor-based dependency injection
+     *
+     * @param mongoTemplate template used for the search queries
+     */
+    @Autowired
+    public CustomerSearchService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+    }
+
+    /**
+     * Search customers by name, case-insensitively
+     *
+     * @param term  the search term
+     * @param mode  prefix or substring match
+     * @param limit maximum number of results
+     * @return matching customers
+     */
+    public List<Customer> search(String term, Mode mode, int limit) {
+        Query query = buildQuery(term, mode).limit(limit);
+        logger.debug("Customer search query: {}", query);
+        return mongoTemplate.find(query, Customer.class);
+    }
+
+    /**
+     * Explain the query a search would run, without executing it.
+     * The filter is mapped to stored field names first, as it is when the search runs.
+     *
+     * @param term the search term
+     * @param mode prefix or substring match
+     * @return the winning plan's stages and index names, plus the raw queryPlanner output
+     */
+    public Map<String, Object> explain(String term, Mode mode) {
+        Query query = buildQuery(term, mode);
+        Document filter = queryMapper.getMappedObject(query.getQueryObject(),
+                mongoTemplate.getConverter().getMappingContext().getPersistentEntity(Customer.class));
+        Document find = new Document("find", mongoTemplate.getCollectionName(Customer.class))
+                .append("filter", filter);
+        Document command = new Document("explain", find).append("verbosity", "queryPlanner");
+        Document queryPlanner = (Document) mongoTemplate.executeCommand(command).get("queryPlanner");
+
+        Document winningPlan = (Document) queryPlanner.get("winningPlan");
+        StringBuilder stages = new StringBuilder();
+        StringBuilder indexes = new StringBuilder();
+        for (Document stage = winningPlan; stage != null; stage = (Document) stage.get("inputStage")) {
+            stages.append(stages.length() > 0 ? " <- " : "").append(stage.getString("stage"));
+            if (stage.containsKey("indexName")) {
+                indexes.append(indexes.length() > 0 ? ", " : "").append(stage.getString("indexName"));
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("stages", stages.toString());
+        result.put("indexes", indexes.toString());
+        result.put("collectionScan", stages.indexOf("COLLSCAN") >= 0);
+        result.put("queryPlanner", queryPlanner);
+        return result;
+    }
+
+    /**
+     * Build the index-friendly query for a search term.
+     * Substring terms shorter than a trigram are matched with an unanchored regex on nameLower alone.
+     * Also used by the reactive handlers, which run the query on a ReactiveMongoTemplate.
+     *
+     * @param term the search term
+     * @param mode prefix or substring match
+     * @return the query
+     */
+    public Query buildQuery(String term, Mode mode) {
+        String normalized = NameTokenizer.normalize(term);
+        String escaped = NameTokenizer.escapeRegex(normalized);
+
+        Criteria criteria;
+        if (mode == Mode.PREFIX) {
+            criteria = Criteria.where("nameLower").regex("^" + escaped);
+        } else if (normalized.length() < NameTokenizer.GRAM_LENGTH) {
+            criteria = Criteria.where("nameLower").regex(escaped);
+        } else {
+            criteria = new Criteria().andOperator(
+                    Criteria.where("nameGrams").all(NameTokenizer.grams(normalized)),
+                    Criteria.where("nameLower").regex(escaped));
+        }
+        return new Query(criteria);
+    }
+}
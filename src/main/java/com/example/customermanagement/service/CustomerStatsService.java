@@ -0,0 +1,297 @@
+package com.example.customermanagement.service;
+
+import com.example.customermanagement.model.Customer;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Customer totals and breakdowns computed server-side with one $facet aggregation:
+ * the total, the most common email domains and area codes, and signups per day over the
+ * last days, taken from the ObjectId timestamps with a $bucket on _id so the range is
+ * served by the _id index.
+ * The result is cached and shared. Once the TTL has passed, the cached result is still
+ * returned while a refresh runs in the background; once a write has been recorded by
+ * {@link CustomerChangeCounter}, callers wait for the refresh instead. Either way at most
+ * one aggregation runs at a time, however many dashboards are polling.
+ */
+@Service
+public class CustomerStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerStatsService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final CustomerChangeCounter changeCounter;
+    private final CustomerReadService customerReadService;
+    private final long ttlMillis;
+    private final int top;
+    private final int recentDays;
+    private final ExecutorService refresher;
+
+    private volatile Snapshot snapshot;
+    private CompletableFuture<Snapshot> refreshing;
+
+    /**
+     * Constructor-based dependency injection
+     *
+     * @param mongoTemplate template the aggregation runs through
+     * @param changeCounter counter of customer writes, which invalidate the cached result
+     * @param customerReadService source of the field names customers are stored under
+     * @param ttlSeconds seconds a result is served before it is refreshed
+     * @param top number of email domains and area codes to report
+     * @param recentDays number of days, today included, to report signups for
+     */
+    @Autowired
+    public CustomerStatsService(MongoTemplate mongoTemplate,
+                                CustomerChangeCounter changeCounter,
+                                CustomerReadService customerReadService,
+                                @Value("${customers.stats.ttl-seconds:30}") long ttlSeconds,
+                                @Value("${customers.stats.top:10}") int top,
+                                @Value("${customers.stats.recent-days:7}") int recentDays) {
+        this.mongoTemplate = mongoTemplate;
+        this.changeCounter = changeCounter;
+        this.customerReadService = customerReadService;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.top = top;
+        this.recentDays = recentDays;
+        this.refresher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "customer-stats-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Get the customer statistics, waiting for a refresh if writes have made the cached result out of date
+     *
+     * @return total, top email domains, top area codes, signups per day and when they were computed
+     * @throws DataAccessException if the aggregation fails
+     */
+    public Map<String, Object> getStats() {
+        try {
+            return getStatsAsync().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Get the customer statistics, for callers that must not block
+     *
+     * @return a future completed with the statistics; already complete when the cached result is served
+     */
+    public CompletableFuture<Map<String, Object>> getStatsAsync() {
+        Snapshot current = snapshot;
+        if (current != null && current.changeCount == changeCounter.getChangeCount()) {
+            if (System.currentTimeMillis() - current.computedAtMillis >= ttlMillis) {
+                refresh();
+            }
+            return CompletableFuture.completedFuture(current.stats);
+        }
+        return refresh().thenApply(refreshed -> refreshed.stats);
+    }
+
+    /**
+     * Start a refresh unless one is already running
+     *
+     * @return the running refresh
+     */
+    private synchronized CompletableFuture<Snapshot> refresh() {
+        if (refreshing != null) {
+            return refreshing;
+        }
+        CompletableFuture<Snapshot> future = new CompletableFuture<>();
+        refreshing = future;
+        refresher.execute(() -> {
+            try {
+                Snapshot computed = compute();
+                snapshot = computed;
+                future.complete(computed);
+            } catch (RuntimeException e) {
+                logger.error("Failed to compute customer statistics", e);
+                future.completeExceptionally(e);
+            } finally {
+                synchronized (this) {
+                    if (refreshing == future) {
+                        refreshing = null;
+                    }
+                }
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Run the $facet aggregation
+     *
+     * @return the statistics with the change count they reflect
+     */
+    private Snapshot compute() {
+        // Read first, so a write during the aggregation leaves the result marked out of date
+        long changeCount = changeCounter.getChangeCount();
+        long start = System.currentTimeMillis();
+
+        String email = "$" + customerReadService.storedFieldName("email");
+        String phone = "$" + customerReadService.storedFieldName("phone");
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        List<Object> dayBoundaries = new ArrayList<>();
+        for (int i = recentDays - 1; i >= -1; i--) {
+            dayBoundaries.add(firstObjectIdOf(today.minusDays(i)));
+        }
+
+        Document facets = new Document()
+                .append("total", Collections.singletonList(new Document("$count", "count")))
+                .append("byEmailDomain", Arrays.asList(
+                        new Document("$match", new Document(email.substring(1), new Document("$type", "string"))),
+                        new Document("$group", new Document("_id",
+                                new Document("$toLower", new Document("$arrayElemAt",
+                                        Arrays.asList(new Document("$split", Arrays.asList(email, "@")), -1))))
+                                .append("count", new Document("$sum", 1))),
+                        new Document("$sort", new Document("count", -1).append("_id", 1)),
+                        new Document("$limit", top)))
+                .append("byAreaCode", Arrays.asList(
+                        new Document("$match", new Document(phone.substring(1), new Document("$regex", "^[0-9]{3}"))),
+                        new Document("$group", new Document("_id",
+                                new Document("$substrCP", Arrays.asList(phone, 0, 3)))
+                                .append("count", new Document("$sum", 1))),
+                        new Document("$sort", new Document("count", -1).append("_id", 1)),
+                        new Document("$limit", top)))
+                .append("recentSignups", Arrays.asList(
+                        new Document("$match", new Document("_id", new Document("$gte", dayBoundaries.get(0))
+                                .append("$lt", dayBoundaries.get(dayBoundaries.size() - 1)))),
+                        new Document("$bucket", new Document("groupBy", "$_id")
+                                .append("boundaries", dayBoundaries)
+                                .append("output", new Document("count", new Document("$sum", 1))))));
+
+        AggregationOperation facet = context -> new Document("$facet", facets);
+        Document result = mongoTemplate.aggregate(Aggregation.newAggregation(facet),
+                mongoTemplate.getCollectionName(Customer.class), Document.class).getUniqueMappedResult();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        List<Document> total = facet(result, "total");
+        stats.put("total", total.isEmpty() ? 0 : total.get(0).get("count", Number.class).longValue());
+        stats.put("byEmailDomain", counts(facet(result, "byEmailDomain"), "domain"));
+        stats.put("byAreaCode", counts(facet(result, "byAreaCode"), "areaCode"));
+        stats.put("recentSignups", signupsPerDay(facet(result, "recentSignups"), today));
+        stats.put("computedAt", Instant.ofEpochMilli(start).toString());
+
+        logger.debug("Customer statistics computed in {} ms", System.currentTimeMillis() - start);
+        return new Snapshot(stats, changeCount, start);
+    }
+
+    /**
+     * Get one facet's output from the aggregation result
+     *
+     * @param result the single document $facet produces
+     * @param name the facet
+     * @return the facet's documents
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Document> facet(Document result, String name) {
+        return (List<Document>) result.get(name);
+    }
+
+    /**
+     * Turn grouped counts into name/count entries
+     *
+     * @param groups the $group output
+     * @param key the name to report each group's _id under
+     * @return the entries, in the pipeline's order
+     */
+    private static List<Map<String, Object>> counts(List<Document> groups, String key) {
+        List<Map<String, Object>> entries = new ArrayList<>(groups.size());
+        for (Document group : groups) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put(key, group.get("_id"));
+            entry.put("count", group.get("count", Number.class).longValue());
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    /**
+     * Turn the $bucket output into one entry per day, including days without signups
+     *
+     * @param buckets the $bucket output, keyed by each day's first ObjectId
+     * @param today the last day reported
+     * @return date/count entries, oldest first
+     */
+    private List<Map<String, Object>> signupsPerDay(List<Document> buckets, LocalDate today) {
+        Map<LocalDate, Long> byDay = new LinkedHashMap<>();
+        for (Document bucket : buckets) {
+            LocalDate day = Instant.ofEpochSecond(bucket.getObjectId("_id").getTimestamp()).atZone(ZoneOffset.UTC).toLocalDate();
+            byDay.put(day, bucket.get("count", Number.class).longValue());
+        }
+        List<Map<String, Object>> entries = new ArrayList<>(recentDays);
+        for (int i = recentDays - 1; i >= 0; i--) {
+            LocalDate day = today.minusDays(i);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("date", day.toString());
+            entry.put("count", byDay.getOrDefault(day, 0L));
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    /**
+     * Get the smallest ObjectId created on a given day (UTC)
+     *
+     * @param day the day
+     * @return an ObjectId with the day's first second as timestamp and every other byte zero
+     */
+    private static ObjectId firstObjectIdOf(LocalDate day) {
+        long seconds = day.atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        return new ObjectId(String.format("%08x0000000000000000", seconds));
+    }
+
+    /**
+     * Stops the refresh thread
+     */
+    @PreDestroy
+    public void stop() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * A computed result with the change count it reflects
+     */
+    private static final class Snapshot {
+
+        private final Map<String, Object> stats;
+        private final long changeCount;
+        private final long computedAtMillis;
+
+        Snapshot(Map<String, Object> stats, long changeCount, long computedAtMillis) {
+            this.stats = Collections.unmodifiableMap(stats);
+            this.changeCount = changeCount;
+            this.computedAtMillis = computedAtMillis;
+        }
+    }
+}
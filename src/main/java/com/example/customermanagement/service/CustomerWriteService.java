@@ -0,0 +1,204 @@
+package com.example.customermanagement.service;
+
+import com.example.customermanagement.model.Customer;
+import com.example.customermanagement.model.NameTokenizer;
+import com.example.customermanagement.repository.CustomerRepository;
+import com.mongodb.client.result.DeleteResult;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service performing customer mutations as single atomic server operations.
+ * Updates use findAndModify with $set of the supplied fields and return the new document;
+ * deletes decide existence from the DeleteResult. Neither path reads the document first,
+ * so each mutation costs one round trip and concurrent updates to different fields are not lost.
+ * Every successful write also advances the collection-level ETag, drops stale entries from
+ * the read cache and adds new emails to the duplicate-email Bloom filter.
+ */
+@Service
+public class CustomerWriteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerWriteService.class);
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    private final MongoTemplate mongoTemplate;
+    private final CustomerRepository customerRepository;
+    private final CustomerInsertCoalescer insertCoalescer;
+    private final CustomerCache customerCache;
+    private final CustomerChangeCounter changeCounter;
+    private final EmailBloomFilter emailBloomFilter;
+
+    /**
+     * Constructor-based dependency injection
+     *
+     * @param mongoTemplate template used for the atomic operations
+     * @param customerRepository repository used to confirm possible duplicate emails
+     * @param insertCoalescer inserts new customers, coalescing concurrent ones when enabled
+     * @param customerCache read-through cache invalidated by updates and deletes
+     * @param changeCounter counter behind the collection-level ETag
+     * @param emailBloomFilter in-memory pre-check for duplicate emails
+     */
+    @Autowired
+    public CustomerWriteService(MongoTemplate mongoTemplate,
+                                CustomerRepository customerRepository,
+                                CustomerInsertCoalescer insertCoalescer,
+                                CustomerCache customerCache,
+                                CustomerChangeCounter changeCounter,
+                                EmailBloomFilter emailBloomFilter) {
+        this.mongoTemplate = mongoTemplate;
+        this.customerRepository = customerRepository;
+        this.insertCoalescer = insertCoalescer;
+        this.customerCache = customerCache;
+        this.changeCounter = changeCounter;
+        this.emailBloomFilter = emailBloomFilter;
+    }
+
+    /**
+     * Check whether an email is already used by another customer.
+     * Only emails the Bloom filter reports as possibly present cost a database lookup.
+     *
+     * @param email the email to check
+     * @return true if a customer with the email exists
+     */
+    public boolean isEmailTaken(String email) {
+        if (email == null || !emailBloomFilter.mightContain(email)) {
+            return false;
+        }
+        boolean exists = customerRepository.existsByEmail(email);
+        if (!exists) {
+            emailBloomFilter.recordFalsePositive();
+        }
+        return exists;
+    }
+
+    /**
+     * Insert a new customer, sharing one bulk insert with concurrent creates when
+     * coalescing is enabled. The coalescer assigns the new customer's ID.
+     *
+     * @param customer the customer to create
+     * @return the created customer
+     * @throws org.springframework.dao.DuplicateKeyException if the email is already taken
+     */
+    public Customer create(Customer customer) {
+        Customer created = insertCoalescer.insert(customer);
+        changeCounter.increment();
+        emailBloomFilter.put(created.getEmail());
+        return created;
+    }
+
+    /**
+     * Build the $set update for the fields supplied in a customer payload.
+     * Fields that are null in the payload are left untouched.
+     *
+     * @param customer the customer payload
+     * @return the update, with no modifications if every field is null
+     */
+    public static Update toUpdate(Customer customer) {
+        Update update = new Update();
+        if (customer.getName() != null) {
+            update.set("name", customer.getName());
+            update.set("nameLower", NameTokenizer.normalize(customer.getName()));
+            update.set("nameGrams", NameTokenizer.grams(customer.getName()));
+        }
+        if (customer.getEmail() != null) {
+            update.set("email", customer.getEmail());
+        }
+        if (customer.getPhone() != null) {
+            update.set("phone", customer.getPhone());
+        }
+        if (customer.getAddress() != null) {
+            update.set("address", customer.getAddress());
+        }
+        return update;
+    }
+
+    /**
+     * Update a customer in one findAndModify round trip
+     *
+     * @param id     the customer ID
+     * @param update the fields to set, built with {@link #toUpdate(Customer)}
+     * @return the updated customer, or null if no customer has the given ID
+     */
+    public Customer update(ObjectId id, Update update) {
+        return update(id, update, null);
+    }
+
+    /**
+     * Update a customer in one findAndModify round trip, only if it is still at the expected version.
+     * The version is incremented by the same operation, so a stale writer matches nothing.
+     *
+     * @param id              the customer ID
+     * @param update          the fields to set, built with {@link #toUpdate(Customer)}
+     * @param expectedVersion the version the client last saw, or null for an unconditional update
+     * @return the updated customer, or null if no customer has the given ID and version
+     */
+    public Customer update(ObjectId id, Update update, Long expectedVersion) {
+        Customer updated = mongoTemplate.findAndModify(byIdAndVersion(id, expectedVersion),
+                update.inc("version", 1), RETURN_NEW, Customer.class);
+        logger.debug("findAndModify for customer {} (version {}) matched: {}", id, expectedVersion, updated != null);
+        if (updated != null) {
+            changeCounter.increment();
+            customerCache.invalidate(id);
+            emailBloomFilter.put(updated.getEmail());
+        }
+        return updated;
+    }
+
+    /**
+     * Build a query matching a single customer by _id and, optionally, version
+     *
+     * @param id              the customer ID
+     * @param expectedVersion the required version, or null to match any version
+     * @return the query
+     */
+    public static Query byIdAndVersion(ObjectId id, Long expectedVersion) {
+        Criteria criteria = Criteria.where("id").is(id);
+        if (expectedVersion != null) {
+            criteria.and("version").is(expectedVersion);
+        }
+        return new Query(criteria);
+    }
+
+    /**
+     * Delete a customer in one round trip
+     *
+     * @param id the customer ID
+     * @return true if a customer was deleted, false if none had the given ID
+     */
+    public boolean delete(ObjectId id) {
+        DeleteResult result = mongoTemplate.remove(byId(id), Customer.class);
+        if (result.getDeletedCount() == 0) {
+            return false;
+        }
+        changeCounter.increment();
+        customerCache.invalidate(id);
+        return true;
+    }
+
+    /**
+     * Delete every customer
+     */
+    public void deleteAll() {
+        customerRepository.deleteAll();
+        changeCounter.increment();
+        customerCache.invalidateAll();
+    }
+
+    /**
+     * Build a query matching a single customer by _id
+     *
+     * @param id the customer ID
+     * @return the query
+     */
+    private static Query byId(ObjectId id) {
+        return new Query(Criteria.where("id").is(id));
+    }
+}
@@ -1,61 +1,257 @@
 package com.example.customermanagement.service;
 
 import com.example.customermanagement.model.Customer;
-import com.example.customermanagement.repository.CustomerRepository;
+import com.mongodb.MongoBulkWriteException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Service;
 
-import javax.annotation.PostConstruct;
-import java.util.Arrays;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Service to initialize the database with dummy customer data on application startup.
- * This service creates 5 sample customers if the database is empty.
+ * Service to seed an empty database with synthetic customer data once the application is ready.
+ * Generation runs in the background so startup is never blocked: parallel producers each
+ * claim the next batch of indexes, generate those customers deterministically from
+ * customers.seed.seed and write them with unordered bulk inserts. Progress and docs/sec
+ * are logged and available from {@link #getProgress()}.
  */
 @Service
 public class DataInitializationService {
 
     private static final Logger logger = LoggerFactory.getLogger(DataInitializationService.class);
 
-    private final CustomerRepository customerRepository;
+    enum Status { IDLE, SKIPPED, RUNNING, COMPLETED, STOPPED, FAILED }
+
+    private final MongoTemplate mongoTemplate;
+    private final EmailBloomFilter emailBloomFilter;
+    private final CustomerChangeCounter changeCounter;
+    private final ObjectProvider<ExecutorService> virtualThreadExecutor;
+    private final boolean enabled;
+    private final long count;
+    private final int producers;
+    private final int batchSize;
+    private final CustomerDataGenerator generator;
+
+    private final AtomicLong nextBatch = new AtomicLong();
+    private final AtomicLong inserted = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicInteger lastReportedPercent = new AtomicInteger();
+    private volatile Status status = Status.IDLE;
+    private volatile boolean stopping;
+    private volatile long startNanos;
+    private volatile long endNanos;
 
     /**
-     * Constructor-based dependency injection for CustomerRepository
+     * Constructor-based dependency injection
      *
-     * @param customerRepository repository for Customer entities
+     * @param mongoTemplate template used for the bulk inserts and the empty-collection check
+     * @param emailBloomFilter duplicate-email pre-check, told about every generated email
+     * @param changeCounter collection change counter, bumped per written batch
+     * @param virtualThreadExecutor executor present only in virtual-thread execution mode
+     * @param enabled whether to seed an empty database at all
+     * @param count number of customers to generate
+     * @param seed seed the generated data is derived from
+     * @param producers number of parallel producers
+     * @param batchSize customers written per unordered bulk insert
      */
     @Autowired
-    public DataInitializationService(CustomerRepository customerRepository) {
-        this.customerRepository = customerRepository;
+    public DataInitializationService(MongoTemplate mongoTemplate,
+                                     EmailBloomFilter emailBloomFilter,
+                                     CustomerChangeCounter changeCounter,
+                                     @Qualifier("virtualThreadExecutor") ObjectProvider<ExecutorService> virtualThreadExecutor,
+                                     @Value("${customers.seed.enabled:true}") boolean enabled,
+                                     @Value("${customers.seed.count:1000}") long count,
+                                     @Value("${customers.seed.seed:42}") long seed,
+                                     @Value("${customers.seed.producers:0}") int producers,
+                                     @Value("${customers.seed.batch-size:1000}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.emailBloomFilter = emailBloomFilter;
+        this.changeCounter = changeCounter;
+        this.virtualThreadExecutor = virtualThreadExecutor;
+        this.enabled = enabled;
+        this.count = count;
+        this.producers = producers > 0 ? producers : Runtime.getRuntime().availableProcessors();
+        this.batchSize = batchSize;
+        this.generator = new CustomerDataGenerator(seed);
     }
 
     /**
-     * Initialize the database with dummy customer data.
-     * This method runs after the service is constructed.
-     * It checks if the database is empty before adding data to avoid duplication.
+     * Start seeding in the background if the customers collection is empty. Emptiness is
+     * judged from the collection's metadata count, which does not scan the collection.
+     * Run by {@link StartupInitializationService} once the application is ready.
      */
-    @PostConstruct
     public void initializeData() {
+        if (!enabled || count <= 0) {
+            logger.info("Customer data seeding disabled");
+            status = Status.SKIPPED;
+            return;
+        }
+
         logger.info("Checking if customer data initialization is needed...");
+        if (mongoTemplate.getCollection(mongoTemplate.getCollectionName(Customer.class)).estimatedDocumentCount() > 0) {
+            logger.info("Database already contains customer data. Skipping initialization.");
+            status = Status.SKIPPED;
+            return;
+        }
 
-        if (customerRepository.count() == 0) {
-            logger.info("Initializing database with dummy customer data");
+        ExecutorService executor = virtualThreadExecutor.getIfAvailable();
+        ExecutorService ownExecutor = null;
+        if (executor == null) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            ownExecutor = Executors.newFixedThreadPool(producers, runnable -> {
+                Thread thread = new Thread(runnable, "customer-seed-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor = ownExecutor;
+        }
 
-            List<Customer> dummyCustomers = Arrays.asList(
-                    new Customer("John Doe", "john.doe@example.com", "555-123-4567", "123 Main St, Anytown, USA"),
-                    new Customer("Jane Smith", "jane.smith@example.com", "555-234-5678", "456 Oak Ave, Somewhere, USA"),
-                    new Customer("Robert Johnson", "robert.johnson@example.com", "555-345-6789", "789 Pine Rd, Nowhere, USA"),
-                    new Customer("Emily Davis", "emily.davis@example.com", "555-456-7890", "101 Maple Dr, Everywhere, USA"),
-                    new Customer("Michael Wilson", "michael.wilson@example.com", "555-567-8901", "202 Cedar Ln, Anywhere, USA")
-            );
+        logger.info("Seeding {} customers with {} producers in batches of {}", count, producers, batchSize);
+        status = Status.RUNNING;
+        startNanos = System.nanoTime();
 
-            customerRepository.saveAll(dummyCustomers);
-            logger.info("Successfully initialized database with {} customer records", dummyCustomers.size());
-        } else {
-            logger.info("Database already contains customer data. Skipping initialization.");
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(producers);
+        for (int i = 0; i < producers; i++) {
+            tasks.add(CompletableFuture.runAsync(this::produce, executor));
+        }
+
+        ExecutorService toShutDown = ownExecutor;
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).whenComplete((ignored, error) -> {
+            endNanos = System.nanoTime();
+            if (error != null) {
+                status = Status.FAILED;
+                logger.error("Customer data seeding failed after {} customers", inserted.get(), error);
+            } else {
+                status = stopping ? Status.STOPPED : Status.COMPLETED;
+                logger.info("Seeded {} customers ({} failed) in {} ms ({} docs/sec)", inserted.get(), failed.get(),
+                        elapsedMillis(), String.format("%.0f", docsPerSecond()));
+            }
+            if (toShutDown != null) {
+                toShutDown.shutdown();
+            }
+        });
+    }
+
+    /**
+     * Stop producers between batches when the application shuts down.
+     */
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+    }
+
+    /**
+     * Get the seeding progress
+     *
+     * @return status, target, inserted/failed counts, elapsed time and docs/sec keyed by name
+     */
+    public Map<String, Object> getProgress() {
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("status", status);
+        progress.put("target", count);
+        progress.put("inserted", inserted.get());
+        progress.put("failed", failed.get());
+        progress.put("producers", producers);
+        progress.put("batchSize", batchSize);
+        progress.put("elapsedMillis", elapsedMillis());
+        progress.put("docsPerSecond", docsPerSecond());
+        return progress;
+    }
+
+    /**
+     * Producer loop: claim the next batch of indexes, generate and insert it, until all are claimed.
+     */
+    private void produce() {
+        long batchCount = (count + batchSize - 1) / batchSize;
+        long batch;
+        while (!stopping && (batch = nextBatch.getAndIncrement()) < batchCount) {
+            long from = batch * batchSize;
+            long to = Math.min(from + batchSize, count);
+
+            List<Customer> customers = new ArrayList<>((int) (to - from));
+            for (long index = from; index < to; index++) {
+                customers.add(generator.generate(index));
+            }
+            insertBatch(customers);
+            reportProgress();
         }
     }
+
+    /**
+     * Write one batch with an unordered bulk insert, so one rejected record does not stop the rest
+     *
+     * @param customers the customers to insert
+     */
+    private void insertBatch(List<Customer> customers) {
+        int batchInserted;
+        try {
+            batchInserted = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Customer.class)
+                    .insert(customers)
+                    .execute()
+                    .getInsertedCount();
+        } catch (DataAccessException e) {
+            if (!(e.getCause() instanceof MongoBulkWriteException)) {
+                throw e;
+            }
+            batchInserted = ((MongoBulkWriteException) e.getCause()).getWriteResult().getInsertedCount();
+        }
+
+        inserted.addAndGet(batchInserted);
+        failed.addAndGet(customers.size() - batchInserted);
+        changeCounter.increment();
+        for (Customer customer : customers) {
+            emailBloomFilter.put(customer.getEmail());
+        }
+    }
+
+    /**
+     * Log progress each time another 10% of the target has been written
+     */
+    private void reportProgress() {
+        int percent = (int) ((inserted.get() + failed.get()) * 100 / count);
+        int reported = lastReportedPercent.get();
+        if (percent / 10 > reported / 10 && lastReportedPercent.compareAndSet(reported, percent)) {
+            logger.info("Seeding progress: {}% ({} customers, {} docs/sec)",
+                    percent, inserted.get(), String.format("%.0f", docsPerSecond()));
+        }
+    }
+
+    /**
+     * Get the time spent seeding so far, or in total once finished
+     *
+     * @return elapsed milliseconds, 0 if seeding never started
+     */
+    private long elapsedMillis() {
+        if (startNanos == 0) {
+            return 0;
+        }
+        long end = endNanos != 0 ? endNanos : System.nanoTime();
+        return (end - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Get the insert throughput
+     *
+     * @return customers inserted per second
+     */
+    private double docsPerSecond() {
+        long millis = elapsedMillis();
+        return millis > 0 ? inserted.get() * 1000.0 / millis : 0.0;
+    }
 }
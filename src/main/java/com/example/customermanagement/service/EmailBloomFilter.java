@@ -0,0 +1,208 @@
+package com.example.customermanagement.service;
+
+import com.example.customermanagement.model.Customer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory Bloom filter over every customer email.
+ * A negative answer from {@link #mightContain(String)} is definitive, so creating a
+ * customer with a new email never has to ask MongoDB whether the email is taken.
+ * A positive answer may be a false positive and must be confirmed against the database,
+ * whose unique email index remains the source of truth.
+ * The filter is warmed from the collection once the application is ready; until then
+ * every email is reported as possibly present. Deleted emails are not removed, so the
+ * false-positive rate drifts up until the filter is rebuilt.
+ */
+@Service
+public class EmailBloomFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailBloomFilter.class);
+    private static final int WARM_UP_BATCH_SIZE = 5000;
+
+    private final MongoTemplate mongoTemplate;
+    private final int numBits;
+    private final int numHashes;
+    private final AtomicLongArray bits;
+    private final AtomicLong insertions = new AtomicLong();
+    private final AtomicLong checks = new AtomicLong();
+    private final AtomicLong positives = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+    private volatile boolean warmed;
+
+    /**
+     * Constructor-based dependency injection.
+     * The bit array and hash count are sized for the expected number of emails and target false-positive rate.
+     *
+     * @param mongoTemplate template used to warm the filter
+     * @param expectedInsertions expected number of distinct emails
+     * @param falsePositiveRate target false-positive probability at the expected size
+     */
+    @Autowired
+    public EmailBloomFilter(MongoTemplate mongoTemplate,
+                            @Value("${customers.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                            @Value("${customers.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.mongoTemplate = mongoTemplate;
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.numBits = (int) Math.min(Math.max(optimalBits, 64), Integer.MAX_VALUE - 63);
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+        this.bits = new AtomicLongArray((numBits + 63) / 64);
+        logger.info("Email Bloom filter sized at {} bits ({} KiB) with {} hash functions",
+                numBits, bits.length() * 8 / 1024, numHashes);
+    }
+
+    /**
+     * Load every existing email into the filter.
+     * Run by {@link StartupInitializationService} once the indexes are in place.
+     */
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+        Query query = new Query(Criteria.where("email").exists(true)).cursorBatchSize(WARM_UP_BATCH_SIZE);
+        query.fields().include("email").exclude("_id");
+
+        long loaded = 0;
+        try (CloseableIterator<Customer> cursor = mongoTemplate.stream(query, Customer.class)) {
+            while (cursor.hasNext()) {
+                put(cursor.next().getEmail());
+                loaded++;
+            }
+        } catch (Exception e) {
+            logger.error("Failed to warm email Bloom filter; duplicate checks will fall back to MongoDB", e);
+            return;
+        }
+
+        warmed = true;
+        logger.info("Email Bloom filter warmed with {} emails in {} ms", loaded, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Record an email as present
+     *
+     * @param email the email; null is ignored
+     */
+    public void put(String email) {
+        if (email == null) {
+            return;
+        }
+        long hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+            setBit(bit);
+        }
+        insertions.incrementAndGet();
+    }
+
+    /**
+     * Check whether an email may already exist.
+     * Only answers from the bit array count as checks and positives; before warm-up every
+     * email might exist, and counting those would understate the false-positive rate.
+     *
+     * @param email the email
+     * @return false if the email definitely does not exist; true if it might
+     */
+    public boolean mightContain(String email) {
+        if (!warmed || email == null) {
+            return true;
+        }
+        checks.incrementAndGet();
+        long hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        positives.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Record that a positive answer turned out not to exist in the database,
+     * so the observed false-positive rate can be reported. Ignored before warm-up,
+     * when positives do not come from the bit array.
+     */
+    public void recordFalsePositive() {
+        if (warmed) {
+            falsePositives.incrementAndGet();
+        }
+    }
+
+    /**
+     * Get the filter's size and accuracy figures
+     *
+     * @return memory footprint, fill ratio, estimated and observed false-positive rates keyed by name
+     */
+    public Map<String, Object> getStats() {
+        long setBits = 0;
+        for (int i = 0; i < bits.length(); i++) {
+            setBits += Long.bitCount(bits.get(i));
+        }
+        double fillRatio = (double) setBits / numBits;
+        long positiveCount = positives.get();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("warmed", warmed);
+        result.put("bits", numBits);
+        result.put("hashFunctions", numHashes);
+        result.put("memoryBytes", bits.length() * 8L);
+        result.put("insertions", insertions.get());
+        result.put("fillRatio", fillRatio);
+        result.put("estimatedFalsePositiveRate", Math.pow(fillRatio, numHashes));
+        result.put("checks", checks.get());
+        result.put("positives", positiveCount);
+        result.put("falsePositives", falsePositives.get());
+        result.put("observedFalsePositiveRate", positiveCount > 0 ? (double) falsePositives.get() / positiveCount : 0.0);
+        return result;
+    }
+
+    /**
+     * Atomically set one bit
+     *
+     * @param bit the bit index
+     */
+    private void setBit(int bit) {
+        int index = bit >>> 6;
+        long mask = 1L << bit;
+        long current;
+        do {
+            current = bits.get(index);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(index, current, current | mask));
+    }
+
+    /**
+     * 64-bit FNV-1a over the email's characters, finished with a SplitMix64 mix
+     * so both 32-bit halves are usable as independent hashes
+     *
+     * @param value the value to hash
+     * @return the mixed hash
+     */
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+}
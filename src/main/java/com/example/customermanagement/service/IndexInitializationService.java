@@ -0,0 +1,118 @@
+package com.example.customermanagement.service;
+
+import com.example.customermanagement.model.Customer;
+import com.example.customermanagement.model.CustomerFieldSet;
+import com.example.customermanagement.model.NameTokenizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service to create the customers collection's indexes explicitly on application startup,
+ * as run by {@link StartupInitializationService}.
+ * Automatic index creation is disabled (spring.data.mongodb.auto-index-creation=false),
+ * so every index a query relies on is declared here. It also backfills the derived
+ * name search keys and the version field on documents written before they existed.
+ */
+@Service
+public class IndexInitializationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexInitializationService.class);
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Constructor-based dependency injection
+     *
+     * @param mongoTemplate template used to manage indexes
+     */
+    @Autowired
+    public IndexInitializationService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Create the customer indexes if they do not exist yet; ensureIndex is a no-op for existing indexes.
+     */
+    public void initializeIndexes() {
+        logger.info("Ensuring customer indexes exist");
+
+        IndexOperations indexOps = mongoTemplate.indexOps(Customer.class);
+        indexOps.ensureIndex(new Index().on("nameLower", Sort.Direction.ASC).named("nameLower_1").background());
+        indexOps.ensureIndex(new Index().on("nameGrams", Sort.Direction.ASC).named("nameGrams_1").background());
+        // Covers ?fields= list views of id, name and email while paging on _id
+        indexOps.ensureIndex(new Index().on("_id", Sort.Direction.ASC).on("name", Sort.Direction.ASC)
+                .on("email", Sort.Direction.ASC).named(CustomerFieldSet.LIST_VIEW_INDEX).background());
+
+        try {
+            indexOps.ensureIndex(new Index().on("email", Sort.Direction.ASC).named("email_1").unique().background());
+        } catch (DataAccessException e) {
+            // Existing duplicate emails prevent the unique index from being built
+            logger.error("Could not create unique email index; resolve duplicate emails and restart", e);
+        }
+
+        backfillNameSearchKeys();
+        backfillVersions();
+        logger.info("Customer indexes are in place");
+    }
+
+    /**
+     * Start customers stored without a version at version 0, in a single updateMany,
+     * so their ETags and If-Match conditions work like those of newer documents
+     */
+    private void backfillVersions() {
+        long versioned = mongoTemplate.updateMulti(new Query(Criteria.where("version").exists(false)),
+                new Update().set("version", 0L), Customer.class).getModifiedCount();
+        if (versioned > 0) {
+            logger.info("Backfilled version on {} customers", versioned);
+        }
+    }
+
+    /**
+     * Populate nameLower and nameGrams on customers that were stored without them
+     */
+    private void backfillNameSearchKeys() {
+        Query missing = new Query(Criteria.where("nameLower").exists(false).and("name").exists(true))
+                .cursorBatchSize(BACKFILL_BATCH_SIZE);
+        missing.fields().include("name");
+
+        int backfilled = 0;
+        BulkOperations bulk = null;
+        try (CloseableIterator<Customer> cursor = mongoTemplate.stream(missing, Customer.class)) {
+            while (cursor.hasNext()) {
+                Customer customer = cursor.next();
+                if (bulk == null) {
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Customer.class);
+                }
+                bulk.updateOne(new Query(Criteria.where("id").is(customer.getId())),
+                        new Update()
+                                .set("nameLower", NameTokenizer.normalize(customer.getName()))
+                                .set("nameGrams", NameTokenizer.grams(customer.getName())));
+
+                if (++backfilled % BACKFILL_BATCH_SIZE == 0) {
+                    bulk.execute();
+                    bulk = null;
+                }
+            }
+        }
+        if (bulk != null) {
+            bulk.execute();
+        }
+
+        if (backfilled > 0) {
+            logger.info("Backfilled name search keys on {} customers", backfilled);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.customermanagement.service;
+
+import com.mongodb.ReadPreference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Decides which customer reads may be served by replica set secondaries.
+ * The configured read preference (secondaryPreferred or nearest, optionally bounded by
+ * maxStalenessSeconds) is applied only while a thread is inside a routed scope, which the
+ * servlet stack opens for the configured GET endpoints; the template applies it to every
+ * collection it hands out in that scope. Everything else, writes included, uses the
+ * client's default, the primary.
+ */
+@Service
+public class ReadPreferenceRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadPreferenceRouter.class);
+
+    /** Smallest maxStalenessSeconds the server accepts */
+    private static final long MIN_MAX_STALENESS_SECONDS = 90;
+
+    /**
+     * GET endpoints whose reads can be routed
+     */
+    public enum Endpoint { LIST, GET, SEARCH, EXPORT }
+
+    private final ReadPreference readPreference;
+    private final Set<Endpoint> endpoints;
+    private final long primaryAfterWriteSeconds;
+    private final ThreadLocal<ReadPreference> current = new ThreadLocal<>();
+
+    /**
+     * Constructor-based dependency injection
+     *
+     * @param mode read preference for routed reads: primary (routing off), primaryPreferred,
+     *             secondary, secondaryPreferred or nearest
+     * @param maxStalenessSeconds how far behind the primary a secondary may be to serve reads,
+     *                            at least 90, or 0 for no bound
+     * @param endpoints the endpoints to route
+     * @param primaryAfterWriteSeconds how long a client's reads stay on the primary after its own write
+     * @throws IllegalArgumentException if the mode or staleness bound is invalid
+     */
+    @Autowired
+    public ReadPreferenceRouter(@Value("${customers.read-routing.mode:primary}") String mode,
+                                @Value("${customers.read-routing.max-staleness-seconds:0}") long maxStalenessSeconds,
+                                @Value("${customers.read-routing.endpoints:list,get,search,export}") String[] endpoints,
+                                @Value("${customers.read-routing.primary-after-write-seconds:120}") long primaryAfterWriteSeconds) {
+        if (maxStalenessSeconds != 0 && maxStalenessSeconds < MIN_MAX_STALENESS_SECONDS) {
+            throw new IllegalArgumentException("customers.read-routing.max-staleness-seconds must be 0 or at least "
+                    + MIN_MAX_STALENESS_SECONDS + ", was " + maxStalenessSeconds);
+        }
+        ReadPreference configured = maxStalenessSeconds > 0
+                ? ReadPreference.valueOf(mode, Collections.emptyList(), maxStalenessSeconds, TimeUnit.SECONDS)
+                : ReadPreference.valueOf(mode);
+        this.readPreference = configured.equals(ReadPreference.primary()) ? null : configured;
+        this.endpoints = EnumSet.noneOf(Endpoint.class);
+        for (String endpoint : endpoints) {
+            this.endpoints.add(Endpoint.valueOf(endpoint.trim().toUpperCase(Locale.ROOT)));
+        }
+        this.primaryAfterWriteSeconds = primaryAfterWriteSeconds;
+
+        if (this.readPreference == null) {
+            logger.info("Read routing off: all reads go to the primary");
+        } else {
+            logger.info("Routing reads of {} to {}; primary for {} s after a client's own write",
+                    this.endpoints, this.readPreference, primaryAfterWriteSeconds);
+            if (maxStalenessSeconds > 0 && primaryAfterWriteSeconds < maxStalenessSeconds) {
+                logger.warn("customers.read-routing.primary-after-write-seconds ({}) is below max-staleness-seconds ({}): "
+                        + "clients may not see their own writes", primaryAfterWriteSeconds, maxStalenessSeconds);
+            }
+        }
+    }
+
+    /**
+     * Check whether reads of an endpoint are routed away from the primary
+     *
+     * @param endpoint the endpoint
+     * @return true if routing is on and the endpoint is configured
+     */
+    public boolean isRouted(Endpoint endpoint) {
+        return readPreference != null && endpoints.contains(endpoint);
+    }
+
+    /**
+     * Get the read preference of routed reads
+     *
+     * @return the configured read preference, or null when routing is off
+     */
+    public ReadPreference getReadPreference() {
+        return readPreference;
+    }
+
+    /**
+     * Get how long a client's reads stay on the primary after its own write
+     *
+     * @return the window in seconds
+     */
+    public long getPrimaryAfterWriteSeconds() {
+        return primaryAfterWriteSeconds;
+    }
+
+    /**
+     * Get the read preference of the current thread's routed scope
+     *
+     * @return the read preference to apply, or null outside a routed scope
+     */
+    public ReadPreference current() {
+        return current.get();
+    }
+
+    /**
+     * Open or close the current thread's routed scope
+     *
+     * @param readPreference the read preference to apply, or null to read from the primary again
+     */
+    public void setCurrent(ReadPreference readPreference) {
+        if (readPreference != null) {
+            current.set(readPreference);
+        } else {
+            current.remove();
+        }
+    }
+
+    /**
+     * Run reads on the primary even inside a routed scope, e.g. to load a cache that
+     * must never hold data older than the last write
+     *
+     * @param reads the reads
+     * @param <T> the result type
+     * @return the reads' result
+     */
+    public <T> T onPrimary(Supplier<T> reads) {
+        ReadPreference previous = current.get();
+        if (previous == null) {
+            return reads.get();
+        }
+        current.remove();
+        try {
+            return reads.get();
+        } finally {
+            current.set(previous);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.customermanagement.service;
+
+import com.mongodb.MongoClientSettings;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the startup work that needs MongoDB: index creation and backfills, loading the
+ * email Bloom filter and seeding an empty database.
+ * By default the indexes are in place before the web server starts, and the rest runs as
+ * soon as the application is ready. With customers.startup.deferred-init (the fast-startup
+ * profile) the application starts without waiting for MongoDB at all: all of it runs on a
+ * background thread once the application is ready, after the connection pool has been
+ * warmed to its minimum size, and is retried until MongoDB can be reached.
+ * {@link #isReady()} tells when it is done; until then {@link #acceptsWrites()} is false,
+ * so customer writes are rejected rather than getting ahead of the unique email index.
+ * Never lazily initialized, so the indexes are still created at startup when other beans are.
+ */
+@Service
+@Lazy(false)
+public class StartupInitializationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupInitializationService.class);
+
+    enum Status { STARTING, WARMING_POOL, CREATING_INDEXES, LOADING_EMAIL_FILTER, SEEDING, READY }
+
+    private final MongoTemplate mongoTemplate;
+    private final IndexInitializationService indexInitializationService;
+    private final EmailBloomFilter emailBloomFilter;
+    private final DataInitializationService dataInitializationService;
+    private final boolean deferred;
+    private final int warmConnections;
+    private final long retryMillis;
+
+    private volatile Status status = Status.STARTING;
+    private volatile int attempts;
+    private volatile String lastError;
+    private volatile long readyUptimeMillis;
+    private volatile boolean stopping;
+
+    /**
+     * Constructor-based dependency injection
+     *
+     * @param mongoTemplate template used to open the warm-up connections
+     * @param mongoClientSettings the blocking MongoClient's settings, for the pool's minimum size
+     * @param indexInitializationService creates the indexes and backfills
+     * @param emailBloomFilter duplicate-email pre-check loaded from the collection
+     * @param dataInitializationService seeds an empty database
+     * @param deferred whether to run everything in the background after startup
+     * @param warmConnections connections to open before the rest, or 0 for the pool's minimum size
+     * @param retrySeconds seconds between attempts while MongoDB cannot be reached
+     */
+    @Autowired
+    public StartupInitializationService(MongoTemplate mongoTemplate,
+                                        MongoClientSettings mongoClientSettings,
+                                        IndexInitializationService indexInitializationService,
+                                        EmailBloomFilter emailBloomFilter,
+                                        DataInitializationService dataInitializationService,
+                                        @Value("${customers.startup.deferred-init:false}") boolean deferred,
+                                        @Value("${customers.startup.warm-connections:0}") int warmConnections,
+                                        @Value("${customers.startup.retry-seconds:5}") long retrySeconds) {
+        this.mongoTemplate = mongoTemplate;
+        this.indexInitializationService = indexInitializationService;
+        this.emailBloomFilter = emailBloomFilter;
+        this.dataInitializationService = dataInitializationService;
+        this.deferred = deferred;
+        this.warmConnections = warmConnections > 0
+                ? warmConnections
+                : Math.max(1, mongoClientSettings.getConnectionPoolSettings().getMinSize());
+        this.retryMillis = TimeUnit.SECONDS.toMillis(retrySeconds);
+    }
+
+    /**
+     * Create the indexes before the web server starts, unless initialization is deferred
+     */
+    @PostConstruct
+    public void initializeIndexes() {
+        if (!deferred) {
+            status = Status.CREATING_INDEXES;
+            indexInitializationService.initializeIndexes();
+        }
+    }
+
+    /**
+     * Load the email filter and start seeding once the application is ready, or start the
+     * background initialization when deferred
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!deferred) {
+            finishInitialization();
+            return;
+        }
+        logger.info("Application started in {} ms; initializing MongoDB-backed state in the background",
+                ManagementFactory.getRuntimeMXBean().getUptime());
+        Thread thread = new Thread(this::initializeInBackground, "customer-startup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stop retrying when the application shuts down
+     */
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+    }
+
+    /**
+     * Check whether the startup work is done
+     *
+     * @return true once the indexes exist, the email filter is loaded and seeding has started
+     */
+    public boolean isReady() {
+        return status == Status.READY;
+    }
+
+    /**
+     * Check whether customer writes may be accepted: always when the indexes were created
+     * before the web server started, otherwise only once the startup work is done
+     *
+     * @return true if writes cannot get ahead of the unique email index
+     */
+    public boolean acceptsWrites() {
+        return !deferred || isReady();
+    }
+
+    /**
+     * Get the startup progress
+     *
+     * @return mode, current step, attempts, last error and the JVM uptime at which the application became ready
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("mode", deferred ? "deferred" : "eager");
+        result.put("status", status);
+        result.put("attempts", attempts);
+        result.put("lastError", lastError);
+        result.put("readyUptimeMillis", readyUptimeMillis);
+        return result;
+    }
+
+    /**
+     * Background loop: warm the pool, create the indexes, load the email filter and start
+     * seeding, retrying from the start until MongoDB can be reached. Every step is safe to repeat.
+     */
+    private void initializeInBackground() {
+        while (!stopping) {
+            attempts++;
+            try {
+                status = Status.WARMING_POOL;
+                warmConnectionPool();
+                status = Status.CREATING_INDEXES;
+                indexInitializationService.initializeIndexes();
+                finishInitialization();
+                return;
+            } catch (RuntimeException e) {
+                lastError = e.getMessage();
+                logger.warn("Startup initialization attempt {} failed, retrying in {} ms: {}",
+                        attempts, retryMillis, e.getMessage());
+                try {
+                    Thread.sleep(retryMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Load the email filter, start seeding and mark the application ready
+     */
+    private void finishInitialization() {
+        status = Status.LOADING_EMAIL_FILTER;
+        emailBloomFilter.warmUp();
+        status = Status.SEEDING;
+        dataInitializationService.initializeData();
+        readyUptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        status = Status.READY;
+        logger.info("Application ready in {} ms", readyUptimeMillis);
+    }
+
+    /**
+     * Open the pool's minimum number of connections at once with concurrent pings, instead of
+     * leaving the first requests to open them or waiting for the pool's maintenance task
+     */
+    private void warmConnectionPool() {
+        long start = System.currentTimeMillis();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(warmConnections, runnable -> {
+            Thread thread = new Thread(runnable, "customer-pool-warmup-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<CompletableFuture<Void>> pings = new ArrayList<>(warmConnections);
+            for (int i = 0; i < warmConnections; i++) {
+                pings.add(CompletableFuture.runAsync(() -> mongoTemplate.executeCommand(new Document("ping", 1)), executor));
+            }
+            for (CompletableFuture<Void> ping : pings) {
+                ping.join();
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        } finally {
+            executor.shutdown();
+        }
+        logger.info("Warmed {} MongoDB connections in {} ms", warmConnections, System.currentTimeMillis() - start);
+    }
+}
@@ -5,6 +5,8 @@
 
 // Global variables
 let editMode = false;
+let nextPageUrl = null;
+let liveUpdates = false;
 const API_URL = '/customers';
 
 // DOM Elements
@@ -19,6 +21,7 @@ const successAlert = document.getElementById('successAlert');
 const errorMessage = document.getElementById('errorMessage');
 const successMessage = document.getElementById('successMessage');
 const noCustomers = document.getElementById('noCustomers');
+const loadMoreBtn = document.getElementById('loadMoreBtn');
 
 // Form fields
 const customerIdField = document.getElementById('customerId');
@@ -31,12 +34,14 @@ const addressField = document.getElementById('address');
  * Initialize the application when the DOM is fully loaded
  */
 document.addEventListener('DOMContentLoaded', () => {
-    // Load all customers when the page loads
+    // Load all customers when the page loads, then keep the table current from the event stream
     loadCustomers();
+    subscribeToChanges();
 
     // Set up event listeners
     customerForm.addEventListener('submit', handleFormSubmit);
     resetBtn.addEventListener('click', resetForm);
+    loadMoreBtn.addEventListener('click', loadMoreCustomers);
 
     // Set up event listeners for alert close buttons
     document.querySelectorAll('.alert .close').forEach(button => {
@@ -47,20 +52,40 @@ document.addEventListener('DOMContentLoaded', () => {
 });
 
 /**
- * Load all customers from the backend and display them in the table
+ * Load the first page of customers from the backend and display them in the table
  */
 function loadCustomers() {
+    fetchCustomerPage(API_URL, false);
+}
+
+/**
+ * Load the next page of customers and append it to the table
+ */
+function loadMoreCustomers() {
+    if (nextPageUrl) {
+        fetchCustomerPage(nextPageUrl, true);
+    }
+}
+
+/**
+ * Fetch one page of customers and render it
+ * @param {string} url - Page URL to fetch
+ * @param {boolean} append - Whether to append to the table instead of replacing it
+ */
+function fetchCustomerPage(url, append) {
     showLoading(true);
 
-    fetch(API_URL)
+    fetch(url)
         .then(response => {
             if (!response.ok) {
                 throw new Error('Failed to fetch customers');
             }
             return response.json();
         })
-        .then(customers => {
-            renderCustomerTable(customers);
+        .then(page => {
+            nextPageUrl = page.next;
+            loadMoreBtn.style.display = nextPageUrl ? 'inline-block' : 'none';
+            renderCustomerTable(page.customers, append);
             showLoading(false);
         })
         .catch(error => {
@@ -69,49 +94,130 @@ function loadCustomers() {
         });
 }
 
+/**
+ * Subscribe to server-sent customer change events and patch the table as they arrive.
+ * The browser reconnects on its own and sends Last-Event-ID, so missed events are replayed.
+ * If the stream is unavailable (e.g. MongoDB is not a replica set), writes fall back to reloading the list.
+ */
+function subscribeToChanges() {
+    if (!window.EventSource) {
+        return;
+    }
+
+    const events = new EventSource(`${API_URL}/events`);
+    events.onopen = () => {
+        liveUpdates = true;
+    };
+    events.onmessage = message => applyChange(JSON.parse(message.data));
+    events.onerror = () => {
+        // CLOSED means the server refused the stream; otherwise the browser is reconnecting
+        if (events.readyState === EventSource.CLOSED) {
+            liveUpdates = false;
+        }
+    };
+}
+
+/**
+ * Apply one change event to the rendered table
+ * @param {Object} event - Change event with type, id and (for inserts and updates) customer
+ */
+function applyChange(event) {
+    const row = event.id ? findCustomerRow(event.id) : null;
+
+    switch (event.type) {
+        case 'insert':
+            // New customers sort last; they appear when the final page has been loaded
+            if (!row && !nextPageUrl && event.customer) {
+                noCustomers.style.display = 'none';
+                customerTableBody.appendChild(createCustomerRow(event.customer));
+            }
+            break;
+        case 'update':
+            if (row && event.customer) {
+                customerTableBody.replaceChild(createCustomerRow(event.customer), row);
+            }
+            break;
+        case 'delete':
+            if (row) {
+                row.remove();
+                noCustomers.style.display = customerTableBody.rows.length === 0 ? 'block' : 'none';
+            }
+            break;
+        case 'reset':
+            loadCustomers();
+            break;
+    }
+}
+
+/**
+ * Find the table row of a customer
+ * @param {string} customerId - ID of the customer
+ * @return {HTMLTableRowElement|null} The row, or null if it is not rendered
+ */
+function findCustomerRow(customerId) {
+    return customerTableBody.querySelector(`tr[data-id="${customerId}"]`);
+}
+
+/**
+ * Reload the table after a write, unless the event stream will patch it
+ */
+function refreshAfterWrite() {
+    if (liveUpdates) {
+        showLoading(false);
+    } else {
+        loadCustomers();
+    }
+}
+
 /**
  * Render the customer table with the provided data
  * @param {Array} customers - Array of customer objects
+ * @param {boolean} append - Whether to append to the existing rows
  */
-function renderCustomerTable(customers) {
-    customerTableBody.innerHTML = '';
+function renderCustomerTable(customers, append) {
+    if (!append) {
+        customerTableBody.innerHTML = '';
+    }
 
-    if (customers.length === 0) {
+    if (customers.length === 0 && !append) {
         noCustomers.style.display = 'block';
         return;
     }
 
     noCustomers.style.display = 'none';
 
-    customers.forEach(customer => {
-        const row = document.createElement('tr');
-
-        // Get the ID as a string (our backend now provides it directly)
-        const customerId = customer.id || 'N/A';
-
-        row.innerHTML = `
-            <td>${customerId}</td>
-            <td>${escapeHtml(customer.name)}</td>
-            <td>${escapeHtml(customer.email)}</td>
-            <td>${escapeHtml(customer.phone)}</td>
-            <td>${escapeHtml(customer.address)}</td>
-            <td>
-                <button class="btn btn-primary btn-sm edit-btn" data-id="${customerId}">Edit</button>
-                <button class="btn btn-danger btn-sm delete-btn" data-id="${customerId}">Delete</button>
-            </td>
-        `;
-
-        customerTableBody.appendChild(row);
-    });
+    customers.forEach(customer => customerTableBody.appendChild(createCustomerRow(customer)));
+}
+
+/**
+ * Build the table row for a customer
+ * @param {Object} customer - Customer object
+ * @return {HTMLTableRowElement} The row
+ */
+function createCustomerRow(customer) {
+    const row = document.createElement('tr');
+
+    // Get the ID as a string (our backend now provides it directly)
+    const customerId = customer.id || 'N/A';
+    row.dataset.id = customerId;
+
+    row.innerHTML = `
+        <td>${customerId}</td>
+        <td>${escapeHtml(customer.name)}</td>
+        <td>${escapeHtml(customer.email)}</td>
+        <td>${escapeHtml(customer.phone)}</td>
+        <td>${escapeHtml(customer.address)}</td>
+        <td>
+            <button class="btn btn-primary btn-sm edit-btn" data-id="${customerId}">Edit</button>
+            <button class="btn btn-danger btn-sm delete-btn" data-id="${customerId}">Delete</button>
+        </td>
+    `;
 
     // Add event listeners to the edit and delete buttons
-    document.querySelectorAll('.edit-btn').forEach(button => {
-        button.addEventListener('click', () => editCustomer(button.getAttribute('data-id')));
-    });
+    row.querySelector('.edit-btn').addEventListener('click', () => editCustomer(customerId));
+    row.querySelector('.delete-btn').addEventListener('click', () => deleteCustomer(customerId));
 
-    document.querySelectorAll('.delete-btn').forEach(button => {
-        button.addEventListener('click', () => deleteCustomer(button.getAttribute('data-id')));
-    });
+    return row;
 }
 
 /**
@@ -156,7 +262,7 @@ function handleFormSubmit(event) {
         .then(() => {
             showSuccess('Customer updated successfully');
             resetForm();
-            loadCustomers();
+            refreshAfterWrite();
         })
         .catch(error => {
             showError('Error updating customer: ' + error.message);
@@ -180,7 +286,7 @@ function handleFormSubmit(event) {
         .then(() => {
             showSuccess('Customer added successfully');
             resetForm();
-            loadCustomers();
+            refreshAfterWrite();
         })
         .catch(error => {
             showError('Error adding customer: ' + error.message);
@@ -247,7 +353,7 @@ function deleteCustomer(customerId) {
         }
 
         showSuccess('Customer deleted successfully');
-        loadCustomers();
+        refreshAfterWrite();
     })
     .catch(error => {
         showError('Error deleting customer: ' + error.message);
@@ -0,0 +1,148 @@
+package com.example.customermanagement.service;
+
+import com.example.customermanagement.config.CompactFieldNamingStrategy;
+import com.example.customermanagement.model.Customer;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.flapdoodle.embed.mongo.MongodExecutable;
+import de.flapdoodle.embed.mongo.MongodStarter;
+import de.flapdoodle.embed.mongo.config.MongodConfigBuilder;
+import de.flapdoodle.embed.mongo.config.Net;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.process.runtime.Network;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDbFactory;
+import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the query plans of name searches against an embedded mongod, with full and compact
+ * field names: prefix and substring searches must be index scans, never collection scans.
+ * Skipped when no mongod can be started, e.g. without network access for the first download.
+ */
+@RunWith(Parameterized.class)
+public class CustomerSearchServiceTest {
+
+    private static MongodExecutable mongod;
+    private static MongoClient mongoClient;
+
+    private final boolean compact;
+    private MongoTemplate mongoTemplate;
+    private CustomerSearchService searchService;
+
+    public CustomerSearchServiceTest(boolean compact) {
+        this.compact = compact;
+    }
+
+    @Parameterized.Parameters(name = "compact={0}")
+    public static Collection<Object[]> storageMappings() {
+        return Arrays.asList(new Object[][] {{false}, {true}});
+    }
+
+    @BeforeClass
+    public static void startMongod() {
+        try {
+            int port = Network.getFreeServerPort();
+            mongod = MongodStarter.getDefaultInstance().prepare(new MongodConfigBuilder()
+                    .version(Version.Main.PRODUCTION)
+                    .net(new Net("localhost", port, Network.localhostIsIPv6()))
+                    .build());
+            mongod.start();
+            mongoClient = MongoClients.create("mongodb://localhost:" + port);
+        } catch (Exception | Error e) {
+            Assume.assumeNoException("No embedded mongod available", e);
+        }
+    }
+
+    @AfterClass
+    public static void stopMongod() {
+        if (mongoClient != null) {
+            mongoClient.close();
+        }
+        if (mongod != null) {
+            mongod.stop();
+        }
+    }
+
+    @Before
+    public void setUp() {
+        SimpleMongoClientDbFactory dbFactory = new SimpleMongoClientDbFactory(mongoClient,
+                "customerdb_search_test_" + (compact ? "compact" : "full"));
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        if (compact) {
+            mappingContext.setFieldNamingStrategy(new CompactFieldNamingStrategy());
+        }
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(new DefaultDbRefResolver(dbFactory), mappingContext);
+        converter.afterPropertiesSet();
+        mongoTemplate = new MongoTemplate(dbFactory, converter);
+
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            customers.add(new Customer("Customer " + i + " Smithson", "search-" + i + "@example.com",
+                    "555-000-0000", "1 Test Way"));
+        }
+        mongoTemplate.insertAll(customers);
+        new IndexInitializationService(mongoTemplate).initializeIndexes();
+        searchService = new CustomerSearchService(mongoTemplate);
+    }
+
+    @After
+    public void tearDown() {
+        mongoTemplate.getDb().drop();
+    }
+
+    @Test
+    public void prefixSearchScansNameLowerIndex() {
+        assertIndexScan(searchService.explain("Custo", CustomerSearchService.Mode.PREFIX), "nameLower_1");
+    }
+
+    @Test
+    public void containsSearchScansTrigramIndex() {
+        assertIndexScan(searchService.explain("smith", CustomerSearchService.Mode.CONTAINS), "nameGrams_1");
+    }
+
+    @Test
+    public void shortContainsSearchScansNameLowerIndex() {
+        assertIndexScan(searchService.explain("th", CustomerSearchService.Mode.CONTAINS), "nameLower_1");
+    }
+
+    @Test
+    public void searchesFindTheirMatches() {
+        assertEquals(111, searchService.search("customer 1", CustomerSearchService.Mode.PREFIX, 500).size());
+        assertEquals(200, searchService.search("SMITH", CustomerSearchService.Mode.CONTAINS, 500).size());
+        assertEquals(200, searchService.search("hs", CustomerSearchService.Mode.CONTAINS, 500).size());
+    }
+
+    /**
+     * Assert that a plan reads the given index and never scans the collection
+     *
+     * @param explain the search service's explain output
+     * @param index the expected index name
+     */
+    private static void assertIndexScan(Map<String, Object> explain, String index) {
+        String stages = (String) explain.get("stages");
+        assertTrue("expected IXSCAN in " + stages, stages.contains("IXSCAN"));
+        assertFalse("unexpected COLLSCAN in " + stages, (Boolean) explain.get("collectionScan"));
+        assertEquals(index, explain.get("indexes"));
+    }
+}